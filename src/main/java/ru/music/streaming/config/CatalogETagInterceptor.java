@@ -0,0 +1,40 @@
+package ru.music.streaming.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.music.streaming.controller.ETags;
+import ru.music.streaming.service.CatalogVersionService;
+
+@Component
+public class CatalogETagInterceptor implements HandlerInterceptor {
+    
+    static final String ETAG_ATTRIBUTE = CatalogETagInterceptor.class.getName() + ".ETAG";
+    
+    private final CatalogVersionService catalogVersionService;
+    
+    @Autowired
+    public CatalogETagInterceptor(CatalogVersionService catalogVersionService) {
+        this.catalogVersionService = catalogVersionService;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || request.getParameter("all") != null) {
+            return true;
+        }
+        String eTag = catalogVersionService.getCatalogTag();
+        if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, eTag);
+        return true;
+    }
+}
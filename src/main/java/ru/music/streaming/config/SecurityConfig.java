@@ -71,6 +71,8 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                 .requestMatchers(HttpMethod.GET, "/api/playlists").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/playlists/{id}").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/playlists/{id}/tracks").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/playlists/{id}/changes").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/playlists/{id}/events").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/playlists/search").permitAll()
                 
                 .requestMatchers(HttpMethod.POST, "/api/artists").hasRole("ADMIN")
@@ -85,6 +87,7 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                 
                 .requestMatchers(HttpMethod.POST, "/api/users").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 
                 .requestMatchers("/api/artists/**").permitAll()
                 .requestMatchers("/api/albums/**").permitAll()
@@ -94,7 +97,9 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                 .requestMatchers(HttpMethod.PUT, "/api/playlists/{id}").hasAnyRole("USER", "ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/playlists/{id}").hasAnyRole("USER", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/playlists/{playlistId}/tracks").hasAnyRole("USER", "ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/playlists/{playlistId}/tracks/bulk").hasAnyRole("USER", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/playlists/{playlistId}/tracks/move").hasAnyRole("USER", "ADMIN")
+                .requestMatchers(HttpMethod.PATCH, "/api/playlists/{playlistId}/tracks").hasAnyRole("USER", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/playlists/{playlistId}/shuffle").hasAnyRole("USER", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/playlists/{playlistId}/clone").hasAnyRole("USER", "ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/playlists/{playlistId}/tracks/{position}").hasAnyRole("USER", "ADMIN")
@@ -0,0 +1,25 @@
+package ru.music.streaming.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final CatalogETagInterceptor catalogETagInterceptor;
+    
+    @Autowired
+    public WebConfig(CatalogETagInterceptor catalogETagInterceptor) {
+        this.catalogETagInterceptor = catalogETagInterceptor;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogETagInterceptor)
+                .addPathPatterns("/api/tracks", "/api/tracks/**", "/api/albums", "/api/albums/**",
+                        "/api/artists", "/api/artists/**")
+                .excludePathPatterns("/api/tracks/search", "/api/albums/search", "/api/artists/search");
+    }
+}
@@ -0,0 +1,47 @@
+package ru.music.streaming.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.music.streaming.dto.SingleFlightStatsResponse;
+import ru.music.streaming.service.CatalogExportService;
+import ru.music.streaming.service.SingleFlightRegistry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    private final CatalogExportService catalogExportService;
+    private final SingleFlightRegistry singleFlightRegistry;
+    
+    @Autowired
+    public AdminController(CatalogExportService catalogExportService, SingleFlightRegistry singleFlightRegistry) {
+        this.catalogExportService = catalogExportService;
+        this.singleFlightRegistry = singleFlightRegistry;
+    }
+    
+    @GetMapping("/export/tracks")
+    public ResponseEntity<StreamingResponseBody> exportTracks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        StreamingResponseBody body = outputStream -> catalogExportService.exportTracks(updatedSince, outputStream);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+    
+    @GetMapping("/metrics/single-flight")
+    public ResponseEntity<List<SingleFlightStatsResponse>> getSingleFlightStats() {
+        return ResponseEntity.ok(singleFlightRegistry.getStats());
+    }
+}
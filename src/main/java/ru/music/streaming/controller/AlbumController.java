@@ -4,8 +4,11 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import ru.music.streaming.dto.CursorPageResponse;
 import ru.music.streaming.model.Album;
+import ru.music.streaming.security.PlaylistOwnershipChecker;
 import ru.music.streaming.service.AlbumService;
 
 import java.util.List;
@@ -15,10 +18,12 @@
 public class AlbumController {
     
     private final AlbumService albumService;
+    private final PlaylistOwnershipChecker ownershipChecker;
     
     @Autowired
-    public AlbumController(AlbumService albumService) {
+    public AlbumController(AlbumService albumService, PlaylistOwnershipChecker ownershipChecker) {
         this.albumService = albumService;
+        this.ownershipChecker = ownershipChecker;
     }
     
     @PostMapping
@@ -29,8 +34,18 @@ public ResponseEntity<Album> createAlbum(@Valid @RequestBody Album album,
     }
     
     @GetMapping
-    public ResponseEntity<List<Album>> getAllAlbums() {
-        List<Album> albums = albumService.getAllAlbums();
+    public ResponseEntity<CursorPageResponse<Album>> getAllAlbums(@RequestParam(required = false) Long after,
+                                                                  @RequestParam(defaultValue = "50") int limit,
+                                                                  @RequestParam(defaultValue = "false") boolean all) {
+        CursorPageResponse<Album> albums;
+        if (all) {
+            if (!ownershipChecker.isAdmin()) {
+                throw new AccessDeniedException("Полный список без постраничной выдачи доступен только администратору");
+            }
+            albums = CursorPageResponse.complete(albumService.getAllAlbums());
+        } else {
+            albums = albumService.getAlbumsPage(after, limit);
+        }
         return ResponseEntity.ok(albums);
     }
     
@@ -61,8 +76,11 @@ public ResponseEntity<List<Album>> getAlbumsByArtist(@PathVariable Long artistId
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Album>> searchAlbums(@RequestParam String title) {
-        List<Album> albums = albumService.searchAlbumsByTitle(title);
+    public ResponseEntity<List<Album>> searchAlbums(@RequestParam String title,
+                                                    @RequestParam(defaultValue = "false") boolean fuzzy) {
+        List<Album> albums = fuzzy
+                ? albumService.fuzzySearchAlbumsByTitle(title)
+                : albumService.searchAlbumsByTitle(title);
         return ResponseEntity.ok(albums);
     }
 }
@@ -4,8 +4,12 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import ru.music.streaming.dto.CursorPageResponse;
+import ru.music.streaming.dto.DiscographyResponse;
 import ru.music.streaming.model.Artist;
+import ru.music.streaming.security.PlaylistOwnershipChecker;
 import ru.music.streaming.service.ArtistService;
 
 import java.util.List;
@@ -15,10 +19,12 @@
 public class ArtistController {
     
     private final ArtistService artistService;
+    private final PlaylistOwnershipChecker ownershipChecker;
     
     @Autowired
-    public ArtistController(ArtistService artistService) {
+    public ArtistController(ArtistService artistService, PlaylistOwnershipChecker ownershipChecker) {
         this.artistService = artistService;
+        this.ownershipChecker = ownershipChecker;
     }
     
     @PostMapping
@@ -28,8 +34,18 @@ public ResponseEntity<Artist> createArtist(@Valid @RequestBody Artist artist) {
     }
     
     @GetMapping
-    public ResponseEntity<List<Artist>> getAllArtists() {
-        List<Artist> artists = artistService.getAllArtists();
+    public ResponseEntity<CursorPageResponse<Artist>> getAllArtists(@RequestParam(required = false) Long after,
+                                                                    @RequestParam(defaultValue = "50") int limit,
+                                                                    @RequestParam(defaultValue = "false") boolean all) {
+        CursorPageResponse<Artist> artists;
+        if (all) {
+            if (!ownershipChecker.isAdmin()) {
+                throw new AccessDeniedException("Полный список без постраничной выдачи доступен только администратору");
+            }
+            artists = CursorPageResponse.complete(artistService.getAllArtists());
+        } else {
+            artists = artistService.getArtistsPage(after, limit);
+        }
         return ResponseEntity.ok(artists);
     }
     
@@ -39,6 +55,12 @@ public ResponseEntity<Artist> getArtistById(@PathVariable Long id) {
         return ResponseEntity.ok(artist);
     }
     
+    @GetMapping("/{id}/discography")
+    public ResponseEntity<DiscographyResponse> getDiscography(@PathVariable Long id) {
+        DiscographyResponse discography = artistService.getDiscography(id);
+        return ResponseEntity.ok(discography);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<Artist> updateArtist(@PathVariable Long id, 
                                                @Valid @RequestBody Artist artist) {
@@ -53,8 +75,11 @@ public ResponseEntity<Void> deleteArtist(@PathVariable Long id) {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Artist>> searchArtists(@RequestParam String name) {
-        List<Artist> artists = artistService.searchArtistsByName(name);
+    public ResponseEntity<List<Artist>> searchArtists(@RequestParam String name,
+                                                      @RequestParam(defaultValue = "false") boolean fuzzy) {
+        List<Artist> artists = fuzzy
+                ? artistService.fuzzySearchArtistsByName(name)
+                : artistService.searchArtistsByName(name);
         return ResponseEntity.ok(artists);
     }
     
@@ -0,0 +1,73 @@
+package ru.music.streaming.controller;
+
+import ru.music.streaming.exception.PreconditionFailedException;
+
+public final class ETags {
+    
+    private ETags() {
+    }
+    
+    static String ofVersion(Long version) {
+        return "\"" + (version == null ? 0L : version) + "\"";
+    }
+    
+    static String ofView(Long version, String catalogTag) {
+        return "\"" + (version == null ? 0L : version) + ":" + unquote(catalogTag) + "\"";
+    }
+    
+    static String ofDigest(String digest) {
+        return "\"" + digest + "\"";
+    }
+    
+    static String ofGzip(String tag) {
+        return "\"" + unquote(tag) + "-gzip\"";
+    }
+    
+    static String unquote(String tag) {
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            return tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+    
+    public static boolean matches(String ifNoneMatch, String... tags) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            for (String tag : tags) {
+                if (value.equals(tag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            throw new PreconditionFailedException("Слабый ETag не подходит для If-Match: " + ifMatch);
+        }
+        value = unquote(value);
+        int separator = value.indexOf(':');
+        if (separator >= 0) {
+            value = value.substring(0, separator);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Некорректное значение заголовка If-Match: " + ifMatch);
+        }
+    }
+}
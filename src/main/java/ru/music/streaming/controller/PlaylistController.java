@@ -2,30 +2,54 @@
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.music.streaming.dto.CursorPageResponse;
+import ru.music.streaming.dto.PlaylistBulkAddRequest;
+import ru.music.streaming.dto.PlaylistBulkAddResponse;
+import ru.music.streaming.dto.PlaylistChangesResponse;
 import ru.music.streaming.dto.PlaylistCloneRequest;
+import ru.music.streaming.dto.PlaylistCloneResponse;
+import ru.music.streaming.dto.PlaylistEditRequest;
 import ru.music.streaming.dto.PlaylistMoveRequest;
+import ru.music.streaming.dto.PlaylistSummaryResponse;
 import ru.music.streaming.dto.PlaylistTrackResponse;
+import ru.music.streaming.dto.TrackField;
 import ru.music.streaming.model.Playlist;
+import ru.music.streaming.repository.PlaylistAccess;
 import ru.music.streaming.security.PlaylistOwnershipChecker;
+import ru.music.streaming.service.CatalogVersionService;
 import ru.music.streaming.service.PlaylistService;
+import ru.music.streaming.service.SerializedResponseCache;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/playlists")
 public class PlaylistController {
     
+    private static final String CONTENT_DIGEST_HEADER = "X-Content-Digest";
+    
     private final PlaylistService playlistService;
     private final PlaylistOwnershipChecker ownershipChecker;
+    private final SerializedResponseCache responseCache;
+    private final CatalogVersionService catalogVersionService;
     
     @Autowired
-    public PlaylistController(PlaylistService playlistService, PlaylistOwnershipChecker ownershipChecker) {
+    public PlaylistController(PlaylistService playlistService,
+                              PlaylistOwnershipChecker ownershipChecker,
+                              SerializedResponseCache responseCache,
+                              CatalogVersionService catalogVersionService) {
         this.playlistService = playlistService;
         this.ownershipChecker = ownershipChecker;
+        this.responseCache = responseCache;
+        this.catalogVersionService = catalogVersionService;
     }
     
     @PostMapping
@@ -39,90 +63,110 @@ public ResponseEntity<Playlist> createPlaylist(@Valid @RequestBody Playlist play
     }
     
     @GetMapping
-    public ResponseEntity<List<Playlist>> getAllPlaylists() {
+    public ResponseEntity<CursorPageResponse<PlaylistSummaryResponse>> getAllPlaylists(@RequestParam(required = false) Long after,
+                                                                                       @RequestParam(defaultValue = "50") int limit,
+                                                                                       @RequestParam(defaultValue = "false") boolean all) {
         var currentUser = ownershipChecker.getCurrentUser();
-        List<Playlist> playlists;
+        CursorPageResponse<PlaylistSummaryResponse> playlists;
         
-        if (currentUser == null) {
-            playlists = playlistService.getPublicPlaylists();
+        if (all) {
+            if (!ownershipChecker.isAdmin()) {
+                throw new AccessDeniedException("Полный список без постраничной выдачи доступен только администратору");
+            }
+            playlists = CursorPageResponse.complete(playlistService.getAllPlaylistSummaries());
+        } else if (currentUser == null) {
+            playlists = playlistService.getPublicPlaylistSummariesPage(after, limit);
         } else if (ownershipChecker.isAdmin()) {
-            playlists = playlistService.getAllPlaylists();
+            playlists = playlistService.getPlaylistSummariesPage(after, limit);
         } else {
-            playlists = playlistService.getAllPlaylists().stream()
-                    .filter(p -> p.getIsPublic() || (p.getUser() != null && p.getUser().getId().equals(currentUser.getId())))
-                    .toList();
+            playlists = playlistService.getVisiblePlaylistSummariesPage(after, limit, currentUser.getId());
         }
         
         return ResponseEntity.ok(playlists);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Playlist> getPlaylistById(@PathVariable Long id) {
-        Playlist playlist = playlistService.getPlaylistById(id);
-        var currentUser = ownershipChecker.getCurrentUser();
-        
-        if (!playlist.getIsPublic() && (currentUser == null || 
-            (!ownershipChecker.isAdmin() && (playlist.getUser() == null || !playlist.getUser().getId().equals(currentUser.getId()))))) {
+    public ResponseEntity<Playlist> getPlaylistById(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(id);
+        if (!ownershipChecker.canRead(access)) {
             throw new AccessDeniedException("У вас нет доступа к этому плейлисту");
         }
         
-        return ResponseEntity.ok(playlist);
+        String catalogTag = catalogVersionService.getCatalogTag();
+        String eTag = ETags.ofView(access.getVersion(), catalogTag);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .build();
+        }
+        Playlist playlist = playlistService.getPlaylistById(id);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofView(playlist.getVersion(), catalogTag))
+                .body(playlist);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<Playlist> updatePlaylist(@PathVariable Long id,
-                                                   @Valid @RequestBody Playlist playlist) {
-        Playlist existing = playlistService.getPlaylistById(id);
-        if (!ownershipChecker.isOwnerOrAdmin(existing)) {
+                                                   @Valid @RequestBody Playlist playlist,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(id);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
             throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
         }
-        Playlist updated = playlistService.updatePlaylist(id, playlist);
-        return ResponseEntity.ok(updated);
+        Playlist updated = playlistService.updatePlaylist(id, playlist, ETags.parseVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETags.ofVersion(updated.getVersion()))
+                .body(updated);
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deletePlaylist(@PathVariable Long id) {
-        Playlist existing = playlistService.getPlaylistById(id);
-        if (!ownershipChecker.isOwnerOrAdmin(existing)) {
+    public ResponseEntity<Void> deletePlaylist(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(id);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
             throw new AccessDeniedException("У вас нет прав для удаления этого плейлиста");
         }
-        playlistService.deletePlaylist(id);
+        playlistService.deletePlaylist(id, ETags.parseVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Playlist>> getPlaylistsByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<PlaylistSummaryResponse>> getPlaylistsByUser(@PathVariable Long userId) {
         var currentUser = ownershipChecker.getCurrentUser();
-        List<Playlist> playlists = playlistService.getPlaylistsByUser(userId);
-        
-        if (currentUser == null || (!ownershipChecker.isAdmin() && !currentUser.getId().equals(userId))) {
-            playlists = playlists.stream()
-                    .filter(Playlist::getIsPublic)
-                    .toList();
-        }
+        boolean publicOnly = currentUser == null || (!ownershipChecker.isAdmin() && !currentUser.getId().equals(userId));
+        List<PlaylistSummaryResponse> playlists = playlistService.getPlaylistSummariesByUser(userId, publicOnly);
         
         return ResponseEntity.ok(playlists);
     }
     
     @GetMapping("/public")
-    public ResponseEntity<List<Playlist>> getPublicPlaylists() {
-        List<Playlist> playlists = playlistService.getPublicPlaylists();
-        return ResponseEntity.ok(playlists);
+    public ResponseEntity<byte[]> getPublicPlaylists(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String eTag = playlistService.getPublicPlaylistsTag();
+        if (ETags.matches(ifNoneMatch, eTag, ETags.ofGzip(eTag))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(encodedTag(eTag, acceptEncoding))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        SerializedResponseCache.SerializedBody body = responseCache.get(SerializedResponseCache.PUBLIC_PLAYLISTS_KEY, eTag,
+                playlistService::getPublicPlaylistSummaries);
+        return serializedResponse(ResponseEntity.ok(), eTag, body, acceptEncoding);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Playlist>> searchPlaylists(@RequestParam String name) {
+    public ResponseEntity<List<PlaylistSummaryResponse>> searchPlaylists(@RequestParam String name) {
         var currentUser = ownershipChecker.getCurrentUser();
-        List<Playlist> playlists = playlistService.searchPlaylistsByName(name);
+        List<PlaylistSummaryResponse> playlists;
         
         if (currentUser == null) {
-            playlists = playlists.stream()
-                    .filter(Playlist::getIsPublic)
-                    .toList();
-        } else if (!ownershipChecker.isAdmin()) {
-            playlists = playlists.stream()
-                    .filter(p -> p.getIsPublic() || (p.getUser() != null && p.getUser().getId().equals(currentUser.getId())))
-                    .toList();
+            playlists = playlistService.searchPublicPlaylistSummaries(name);
+        } else if (ownershipChecker.isAdmin()) {
+            playlists = playlistService.searchPlaylistSummaries(name);
+        } else {
+            playlists = playlistService.searchVisiblePlaylistSummaries(name, currentUser.getId());
         }
         
         return ResponseEntity.ok(playlists);
@@ -131,13 +175,15 @@ public ResponseEntity<List<Playlist>> searchPlaylists(@RequestParam String name)
     @PostMapping("/{playlistId}/tracks")
     public ResponseEntity<PlaylistTrackResponse> addTrackToPlaylist(@PathVariable Long playlistId,
                                                             @RequestParam Long trackId,
-                                                            @RequestParam(required = false) Integer position) {
-        Playlist existing = playlistService.getPlaylistById(playlistId);
-        if (!ownershipChecker.isOwnerOrAdmin(existing)) {
+                                                            @RequestParam(required = false) Integer position,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
             throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
         }
-        playlistService.addTrackToPlaylist(playlistId, trackId, position);
-        List<PlaylistTrackResponse> view = playlistService.getPlaylistView(playlistId);
+        playlistService.addTrackToPlaylist(playlistId, trackId, position, ETags.parseVersion(ifMatch));
+        PlaylistAccess updated = playlistService.getPlaylistAccess(playlistId);
+        List<PlaylistTrackResponse> view = playlistService.getPlaylistView(updated);
         PlaylistTrackResponse response = view.stream()
                 .filter(item -> item.getTrackId().equals(trackId))
                 .findFirst()
@@ -150,73 +196,222 @@ public ResponseEntity<PlaylistTrackResponse> addTrackToPlaylist(@PathVariable Lo
         if (response == null) {
             throw new RuntimeException("Не удалось получить информацию о добавленном треке");
         }
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETags.ofVersion(updated.getVersion()))
+                .body(response);
+    }
+    
+    @PostMapping("/{playlistId}/tracks/bulk")
+    public ResponseEntity<PlaylistBulkAddResponse> addTracksToPlaylist(@PathVariable Long playlistId,
+                                                                       @Valid @RequestBody PlaylistBulkAddRequest request,
+                                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
+            throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
+        }
+        PlaylistBulkAddResponse response = playlistService.addTracksToPlaylist(playlistId, request.getTrackIds(),
+                ETags.parseVersion(ifMatch));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETags.ofVersion(playlistService.getPlaylistVersion(playlistId)))
+                .body(response);
+    }
+    
+    @PatchMapping("/{playlistId}/tracks")
+    public ResponseEntity<List<PlaylistTrackResponse>> editPlaylistTracks(@PathVariable Long playlistId,
+                                                                          @Valid @RequestBody PlaylistEditRequest request,
+                                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
+            throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
+        }
+        playlistService.applyPlaylistEdits(playlistId, request.getOperations(), ETags.parseVersion(ifMatch));
+        return playlistViewResponse(playlistService.getPlaylistAccess(playlistId), null, null);
     }
     
     @PostMapping("/{playlistId}/tracks/move")
     public ResponseEntity<List<PlaylistTrackResponse>> moveTrackInPlaylist(@PathVariable Long playlistId,
-                                                                           @Valid @RequestBody PlaylistMoveRequest request) {
-        Playlist existing = playlistService.getPlaylistById(playlistId);
-        if (!ownershipChecker.isOwnerOrAdmin(existing)) {
+                                                                           @Valid @RequestBody PlaylistMoveRequest request,
+                                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
             throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
         }
-        playlistService.moveTrackWithinPlaylist(playlistId, request.getTrackId(), request.getNewPosition());
-        return ResponseEntity.ok(playlistService.getPlaylistView(playlistId));
+        playlistService.moveTrackWithinPlaylist(playlistId, request.getTrackId(), request.getNewPosition(),
+                ETags.parseVersion(ifMatch));
+        return playlistViewResponse(playlistService.getPlaylistAccess(playlistId), null, null);
     }
     
     @PostMapping("/{playlistId}/shuffle")
-    public ResponseEntity<List<PlaylistTrackResponse>> shufflePlaylist(@PathVariable Long playlistId) {
-        Playlist existing = playlistService.getPlaylistById(playlistId);
-        if (!ownershipChecker.isOwnerOrAdmin(existing)) {
+    public ResponseEntity<List<PlaylistTrackResponse>> shufflePlaylist(@PathVariable Long playlistId,
+                                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
             throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
         }
-        playlistService.shufflePlaylist(playlistId);
-        return ResponseEntity.ok(playlistService.getPlaylistView(playlistId));
+        playlistService.shufflePlaylist(playlistId, ETags.parseVersion(ifMatch));
+        return playlistViewResponse(playlistService.getPlaylistAccess(playlistId), null, null);
     }
     
     @PostMapping("/{playlistId}/clone")
-    public ResponseEntity<Playlist> clonePlaylist(@PathVariable Long playlistId,
-                                                  @Valid @RequestBody PlaylistCloneRequest request) {
-        Playlist source = playlistService.getPlaylistById(playlistId);
+    public ResponseEntity<PlaylistCloneResponse> clonePlaylist(@PathVariable Long playlistId,
+                                                               @Valid @RequestBody PlaylistCloneRequest request) {
+        PlaylistAccess source = playlistService.getPlaylistAccess(playlistId);
         var currentUser = ownershipChecker.getCurrentUser();
         if (currentUser == null) {
             throw new AccessDeniedException("Пользователь не аутентифицирован");
         }
         
-        boolean canClone = source.getIsPublic() || 
-                          (source.getUser() != null && source.getUser().getId().equals(currentUser.getId())) || 
-                          ownershipChecker.isAdmin();
-        
-        if (!canClone) {
+        if (!ownershipChecker.canRead(source)) {
             throw new AccessDeniedException("У вас нет прав для клонирования этого плейлиста");
         }
         
-        Playlist clone = playlistService.clonePlaylist(playlistId, currentUser.getId(), request.getName(), request.getDescription(), request.getMakePublic());
+        PlaylistCloneResponse clone = playlistService.clonePlaylist(playlistId, currentUser.getId(), request.getName(),
+                request.getDescription(), request.getMakePublic(), request.getShareTracks());
         return new ResponseEntity<>(clone, HttpStatus.CREATED);
     }
     
     @DeleteMapping("/{playlistId}/tracks/{position}")
     public ResponseEntity<Void> removeTrackFromPlaylist(@PathVariable Long playlistId,
-                                                        @PathVariable Integer position) {
-        Playlist existing = playlistService.getPlaylistById(playlistId);
-        if (!ownershipChecker.isOwnerOrAdmin(existing)) {
+                                                        @PathVariable Integer position,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.isOwnerOrAdmin(access)) {
             throw new AccessDeniedException("У вас нет прав для изменения этого плейлиста");
         }
-        playlistService.removeTrackFromPlaylist(playlistId, position);
-        return ResponseEntity.noContent().build();
+        playlistService.removeTrackFromPlaylist(playlistId, position, ETags.parseVersion(ifMatch));
+        return ResponseEntity.noContent()
+                .eTag(ETags.ofVersion(playlistService.getPlaylistVersion(playlistId)))
+                .build();
     }
     
     @GetMapping("/{playlistId}/tracks")
-    public ResponseEntity<List<PlaylistTrackResponse>> getPlaylistTracks(@PathVariable Long playlistId) {
-        Playlist playlist = playlistService.getPlaylistById(playlistId);
-        var currentUser = ownershipChecker.getCurrentUser();
+    public ResponseEntity<?> getPlaylistTracks(@PathVariable Long playlistId,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.canRead(access)) {
+            throw new AccessDeniedException("У вас нет доступа к этому плейлисту");
+        }
+        
+        Set<TrackField> parsedFields = TrackField.parse(fields, PlaylistService.VIEW_FIELDS);
+        if (parsedFields != null || !Boolean.TRUE.equals(access.getIsPublic())) {
+            return playlistViewResponse(access, parsedFields, ifNoneMatch);
+        }
         
-        if (!playlist.getIsPublic() && (currentUser == null || 
-            (!ownershipChecker.isAdmin() && (playlist.getUser() == null || !playlist.getUser().getId().equals(currentUser.getId()))))) {
+        String catalogTag = catalogVersionService.getCatalogTag();
+        String eTag = ETags.ofView(access.getVersion(), catalogTag);
+        String digest = viewDigest(access, catalogTag);
+        if (ETags.matches(ifNoneMatch, eTag, ETags.ofGzip(eTag), ETags.ofDigest(digest))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(encodedTag(eTag, acceptEncoding))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .header(CONTENT_DIGEST_HEADER, digest)
+                    .build();
+        }
+        SerializedResponseCache.SerializedBody body = responseCache.get(SerializedResponseCache.playlistKey(playlistId),
+                eTag + digest,
+                () -> playlistService.getPlaylistView(access, null));
+        return serializedResponse(ResponseEntity.ok().header(CONTENT_DIGEST_HEADER, digest), eTag, body, acceptEncoding);
+    }
+    
+    @GetMapping(value = "/{playlistId}/tracks", params = "limit")
+    public ResponseEntity<CursorPageResponse<PlaylistTrackResponse>> getPlaylistTracksPage(@PathVariable Long playlistId,
+                                                                                          @RequestParam int limit,
+                                                                                          @RequestParam(required = false) String after,
+                                                                                          @RequestParam(required = false) String fields) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.canRead(access)) {
+            throw new AccessDeniedException("У вас нет доступа к этому плейлисту");
+        }
+        
+        CursorPageResponse<PlaylistTrackResponse> page = playlistService.getPlaylistViewPage(access, after, limit,
+                TrackField.parse(fields, PlaylistService.VIEW_FIELDS));
+        return ResponseEntity.ok()
+                .eTag(ETags.ofView(access.getVersion(), catalogVersionService.getCatalogTag()))
+                .body(page);
+    }
+    
+    @GetMapping("/{playlistId}/changes")
+    public ResponseEntity<PlaylistChangesResponse> getPlaylistChanges(@PathVariable Long playlistId,
+                                                                      @RequestParam(required = false) Long since) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.canRead(access)) {
             throw new AccessDeniedException("У вас нет доступа к этому плейлисту");
         }
         
-        List<PlaylistTrackResponse> tracks = playlistService.getPlaylistView(playlistId);
-        return ResponseEntity.ok(tracks);
+        PlaylistChangesResponse changes = playlistService.getPlaylistChanges(access, since);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofVersion(changes.getRevision()))
+                .body(changes);
+    }
+    
+    @GetMapping(value = "/{playlistId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToPlaylist(@PathVariable Long playlistId) {
+        PlaylistAccess access = playlistService.getPlaylistAccess(playlistId);
+        if (!ownershipChecker.canRead(access)) {
+            throw new AccessDeniedException("У вас нет доступа к этому плейлисту");
+        }
+        
+        return playlistService.subscribeToPlaylistEvents(access, ownershipChecker.isOwnerOrAdmin(access));
+    }
+    
+    private ResponseEntity<List<PlaylistTrackResponse>> playlistViewResponse(PlaylistAccess access, Set<TrackField> fields,
+                                                                             String ifNoneMatch) {
+        String catalogTag = catalogVersionService.getCatalogTag();
+        String eTag = ETags.ofView(access.getVersion(), catalogTag);
+        String digest = viewDigest(access, catalogTag);
+        if (ETags.matches(ifNoneMatch, eTag, ETags.ofDigest(digest))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .header(CONTENT_DIGEST_HEADER, digest)
+                    .build();
+        }
+        List<PlaylistTrackResponse> tracks = playlistService.getPlaylistView(access, fields);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .header(CONTENT_DIGEST_HEADER, digest)
+                .body(tracks);
+    }
+    
+    private String viewDigest(PlaylistAccess access, String catalogTag) {
+        return playlistService.getPlaylistContentDigest(access) + ":" + ETags.unquote(catalogTag);
+    }
+    
+    private static ResponseEntity<byte[]> serializedResponse(ResponseEntity.BodyBuilder builder,
+                                                             String eTag,
+                                                             SerializedResponseCache.SerializedBody body,
+                                                             String acceptEncoding) {
+        builder.contentType(MediaType.APPLICATION_JSON)
+                .eTag(encodedTag(eTag, acceptEncoding))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        return builder.body(body.getJson());
+    }
+    
+    private static String encodedTag(String eTag, String acceptEncoding) {
+        return acceptsGzip(acceptEncoding) ? ETags.ofGzip(eTag) : eTag;
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
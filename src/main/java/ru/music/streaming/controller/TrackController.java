@@ -4,10 +4,18 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import ru.music.streaming.dto.CursorPageResponse;
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackBatchRequest;
+import ru.music.streaming.dto.TrackBatchResponse;
+import ru.music.streaming.dto.TrackField;
 import ru.music.streaming.model.Track;
+import ru.music.streaming.security.PlaylistOwnershipChecker;
 import ru.music.streaming.service.TrackService;
 
+import java.util.EnumSet;
 import java.util.List;
 
 @RestController
@@ -15,10 +23,12 @@
 public class TrackController {
     
     private final TrackService trackService;
+    private final PlaylistOwnershipChecker ownershipChecker;
     
     @Autowired
-    public TrackController(TrackService trackService) {
+    public TrackController(TrackService trackService, PlaylistOwnershipChecker ownershipChecker) {
         this.trackService = trackService;
+        this.ownershipChecker = ownershipChecker;
     }
     
     @PostMapping
@@ -30,8 +40,18 @@ public ResponseEntity<Track> createTrack(@Valid @RequestBody Track track,
     }
     
     @GetMapping
-    public ResponseEntity<List<Track>> getAllTracks() {
-        List<Track> tracks = trackService.getAllTracks();
+    public ResponseEntity<CursorPageResponse<Track>> getAllTracks(@RequestParam(required = false) Long after,
+                                                                  @RequestParam(defaultValue = "50") int limit,
+                                                                  @RequestParam(defaultValue = "false") boolean all) {
+        CursorPageResponse<Track> tracks;
+        if (all) {
+            if (!ownershipChecker.isAdmin()) {
+                throw new AccessDeniedException("Полный список без постраничной выдачи доступен только администратору");
+            }
+            tracks = CursorPageResponse.complete(trackService.getAllTracks());
+        } else {
+            tracks = trackService.getTracksPage(after, limit);
+        }
         return ResponseEntity.ok(tracks);
     }
     
@@ -41,6 +61,12 @@ public ResponseEntity<Track> getTrackById(@PathVariable Long id) {
         return ResponseEntity.ok(track);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<TrackBatchResponse> getTracksByIds(@Valid @RequestBody TrackBatchRequest request) {
+        TrackBatchResponse tracks = trackService.getTracksByIds(request.getIds());
+        return ResponseEntity.ok(tracks);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<Track> updateTrack(@PathVariable Long id, 
                                             @Valid @RequestBody Track track,
@@ -62,15 +88,34 @@ public ResponseEntity<List<Track>> getTracksByArtist(@PathVariable Long artistId
         return ResponseEntity.ok(tracks);
     }
     
+    @GetMapping(value = "/artist/{artistId}", params = "fields")
+    public ResponseEntity<List<SparseTrackResponse>> getTracksByArtist(@PathVariable Long artistId,
+                                                                       @RequestParam String fields) {
+        List<SparseTrackResponse> tracks = trackService.getTracksByArtist(artistId,
+                TrackField.parse(fields, EnumSet.allOf(TrackField.class)));
+        return ResponseEntity.ok(tracks);
+    }
+    
     @GetMapping("/album/{albumId}")
     public ResponseEntity<List<Track>> getTracksByAlbum(@PathVariable Long albumId) {
         List<Track> tracks = trackService.getTracksByAlbum(albumId);
         return ResponseEntity.ok(tracks);
     }
     
+    @GetMapping(value = "/album/{albumId}", params = "fields")
+    public ResponseEntity<List<SparseTrackResponse>> getTracksByAlbum(@PathVariable Long albumId,
+                                                                      @RequestParam String fields) {
+        List<SparseTrackResponse> tracks = trackService.getTracksByAlbum(albumId,
+                TrackField.parse(fields, EnumSet.allOf(TrackField.class)));
+        return ResponseEntity.ok(tracks);
+    }
+    
     @GetMapping("/search")
-    public ResponseEntity<List<Track>> searchTracks(@RequestParam String title) {
-        List<Track> tracks = trackService.searchTracksByTitle(title);
+    public ResponseEntity<List<Track>> searchTracks(@RequestParam String title,
+                                                    @RequestParam(defaultValue = "false") boolean fuzzy) {
+        List<Track> tracks = fuzzy
+                ? trackService.fuzzySearchTracksByTitle(title)
+                : trackService.searchTracksByTitle(title);
         return ResponseEntity.ok(tracks);
     }
     
@@ -7,6 +7,7 @@
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 import ru.music.streaming.dto.CreateUserRequest;
+import ru.music.streaming.dto.CursorPageResponse;
 import ru.music.streaming.dto.DailyMixRequest;
 import ru.music.streaming.dto.UserLibrarySummaryResponse;
 import ru.music.streaming.dto.UserSessionResponse;
@@ -44,11 +45,15 @@ public ResponseEntity<User> createUser(@Valid @RequestBody CreateUserRequest req
     }
     
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<CursorPageResponse<User>> getAllUsers(@RequestParam(required = false) Long after,
+                                                                @RequestParam(defaultValue = "50") int limit,
+                                                                @RequestParam(defaultValue = "false") boolean all) {
         if (!ownershipChecker.isAdmin()) {
             throw new AccessDeniedException("Только администратор может просматривать список всех пользователей");
         }
-        List<User> users = userService.getAllUsers();
+        CursorPageResponse<User> users = all
+                ? CursorPageResponse.complete(userService.getAllUsers())
+                : userService.getUsersPage(after, limit);
         return ResponseEntity.ok(users);
     }
     
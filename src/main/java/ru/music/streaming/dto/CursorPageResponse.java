@@ -0,0 +1,40 @@
+package ru.music.streaming.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPageResponse<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public CursorPageResponse(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public static <T> CursorPageResponse<T> fromRows(List<T> rows, int limit, Function<T, ?> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? String.valueOf(cursorOf.apply(items.get(items.size() - 1))) : null;
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+
+    public static <T> CursorPageResponse<T> complete(List<T> items) {
+        return new CursorPageResponse<>(items, null, false);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
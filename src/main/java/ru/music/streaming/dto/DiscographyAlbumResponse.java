@@ -0,0 +1,59 @@
+package ru.music.streaming.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class DiscographyAlbumResponse {
+
+    private final Long id;
+    private final String title;
+    private final LocalDate releaseDate;
+    private final String coverUrl;
+    private final int trackCount;
+    private final long totalDurationSeconds;
+    private final List<SparseTrackResponse> tracks;
+
+    public DiscographyAlbumResponse(Long id,
+                                    String title,
+                                    LocalDate releaseDate,
+                                    String coverUrl,
+                                    int trackCount,
+                                    long totalDurationSeconds,
+                                    List<SparseTrackResponse> tracks) {
+        this.id = id;
+        this.title = title;
+        this.releaseDate = releaseDate;
+        this.coverUrl = coverUrl;
+        this.trackCount = trackCount;
+        this.totalDurationSeconds = totalDurationSeconds;
+        this.tracks = tracks;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDate getReleaseDate() {
+        return releaseDate;
+    }
+
+    public String getCoverUrl() {
+        return coverUrl;
+    }
+
+    public int getTrackCount() {
+        return trackCount;
+    }
+
+    public long getTotalDurationSeconds() {
+        return totalDurationSeconds;
+    }
+
+    public List<SparseTrackResponse> getTracks() {
+        return tracks;
+    }
+}
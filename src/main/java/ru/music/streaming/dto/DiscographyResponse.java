@@ -0,0 +1,51 @@
+package ru.music.streaming.dto;
+
+import java.util.List;
+
+public class DiscographyResponse {
+
+    private final Long artistId;
+    private final String artistName;
+    private final int trackCount;
+    private final long totalDurationSeconds;
+    private final List<DiscographyAlbumResponse> albums;
+    private final List<SparseTrackResponse> singles;
+
+    public DiscographyResponse(Long artistId,
+                               String artistName,
+                               int trackCount,
+                               long totalDurationSeconds,
+                               List<DiscographyAlbumResponse> albums,
+                               List<SparseTrackResponse> singles) {
+        this.artistId = artistId;
+        this.artistName = artistName;
+        this.trackCount = trackCount;
+        this.totalDurationSeconds = totalDurationSeconds;
+        this.albums = albums;
+        this.singles = singles;
+    }
+
+    public Long getArtistId() {
+        return artistId;
+    }
+
+    public String getArtistName() {
+        return artistName;
+    }
+
+    public int getTrackCount() {
+        return trackCount;
+    }
+
+    public long getTotalDurationSeconds() {
+        return totalDurationSeconds;
+    }
+
+    public List<DiscographyAlbumResponse> getAlbums() {
+        return albums;
+    }
+
+    public List<SparseTrackResponse> getSingles() {
+        return singles;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.music.streaming.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class PlaylistBulkAddRequest {
+
+    @NotEmpty(message = "Укажите хотя бы один трек")
+    @Size(max = 1000, message = "За один запрос можно добавить не более 1000 треков")
+    private List<@NotNull(message = "ID трека не может быть пустым") Long> trackIds;
+
+    public List<Long> getTrackIds() {
+        return trackIds;
+    }
+
+    public void setTrackIds(List<Long> trackIds) {
+        this.trackIds = trackIds;
+    }
+}
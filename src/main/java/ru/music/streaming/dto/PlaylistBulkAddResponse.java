@@ -0,0 +1,28 @@
+package ru.music.streaming.dto;
+
+import java.util.List;
+
+public class PlaylistBulkAddResponse {
+
+    private final List<Long> addedTrackIds;
+    private final List<Long> skippedTrackIds;
+    private final List<Long> missingTrackIds;
+
+    public PlaylistBulkAddResponse(List<Long> addedTrackIds, List<Long> skippedTrackIds, List<Long> missingTrackIds) {
+        this.addedTrackIds = addedTrackIds;
+        this.skippedTrackIds = skippedTrackIds;
+        this.missingTrackIds = missingTrackIds;
+    }
+
+    public List<Long> getAddedTrackIds() {
+        return addedTrackIds;
+    }
+
+    public List<Long> getSkippedTrackIds() {
+        return skippedTrackIds;
+    }
+
+    public List<Long> getMissingTrackIds() {
+        return missingTrackIds;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.music.streaming.dto;
+
+import ru.music.streaming.model.PlaylistChange;
+
+import java.util.List;
+
+public class PlaylistChangesResponse {
+
+    private final Long revision;
+    private final boolean resync;
+    private final List<PlaylistChange> changes;
+
+    public PlaylistChangesResponse(Long revision, boolean resync, List<PlaylistChange> changes) {
+        this.revision = revision;
+        this.resync = resync;
+        this.changes = changes;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public List<PlaylistChange> getChanges() {
+        return changes;
+    }
+}
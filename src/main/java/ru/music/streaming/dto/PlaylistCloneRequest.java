@@ -12,6 +12,8 @@ public class PlaylistCloneRequest {
 
     private Boolean makePublic;
 
+    private Boolean shareTracks;
+
     public String getName() {
         return name;
     }
@@ -35,4 +37,12 @@ public Boolean getMakePublic() {
     public void setMakePublic(Boolean makePublic) {
         this.makePublic = makePublic;
     }
+
+    public Boolean getShareTracks() {
+        return shareTracks;
+    }
+
+    public void setShareTracks(Boolean shareTracks) {
+        this.shareTracks = shareTracks;
+    }
 }
@@ -0,0 +1,59 @@
+package ru.music.streaming.dto;
+
+import java.time.LocalDateTime;
+
+public class PlaylistCloneResponse {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Boolean isPublic;
+    private final LocalDateTime createdAt;
+    private final Long sourcePlaylistId;
+    private final int trackCount;
+    private final boolean sharedTracks;
+
+    public PlaylistCloneResponse(Long id, String name, String description, Boolean isPublic,
+                                 LocalDateTime createdAt, Long sourcePlaylistId, int trackCount, boolean sharedTracks) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.isPublic = isPublic;
+        this.createdAt = createdAt;
+        this.sourcePlaylistId = sourcePlaylistId;
+        this.trackCount = trackCount;
+        this.sharedTracks = sharedTracks;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getSourcePlaylistId() {
+        return sourcePlaylistId;
+    }
+
+    public int getTrackCount() {
+        return trackCount;
+    }
+
+    public boolean isSharedTracks() {
+        return sharedTracks;
+    }
+}
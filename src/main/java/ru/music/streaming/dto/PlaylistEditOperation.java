@@ -0,0 +1,43 @@
+package ru.music.streaming.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class PlaylistEditOperation {
+
+    public enum Type {
+        ADD,
+        REMOVE,
+        MOVE
+    }
+
+    @NotNull(message = "Укажите тип операции")
+    private Type type;
+
+    private Long trackId;
+
+    private Integer position;
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getTrackId() {
+        return trackId;
+    }
+
+    public void setTrackId(Long trackId) {
+        this.trackId = trackId;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+}
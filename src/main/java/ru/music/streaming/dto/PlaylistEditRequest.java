@@ -0,0 +1,23 @@
+package ru.music.streaming.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class PlaylistEditRequest {
+
+    @NotEmpty(message = "Укажите хотя бы одну операцию")
+    @Size(max = 1000, message = "За один запрос можно выполнить не более 1000 операций")
+    @Valid
+    private List<PlaylistEditOperation> operations;
+
+    public List<PlaylistEditOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<PlaylistEditOperation> operations) {
+        this.operations = operations;
+    }
+}
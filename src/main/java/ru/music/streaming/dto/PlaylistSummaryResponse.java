@@ -0,0 +1,65 @@
+package ru.music.streaming.dto;
+
+import java.time.LocalDateTime;
+
+public class PlaylistSummaryResponse {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Boolean isPublic;
+    private final LocalDateTime createdAt;
+    private final Long ownerId;
+    private final String ownerUsername;
+    private final long trackCount;
+    private final long totalDurationSeconds;
+
+    public PlaylistSummaryResponse(Long id, String name, String description, Boolean isPublic, LocalDateTime createdAt,
+                                   Long ownerId, String ownerUsername, Long trackCount, Long totalDurationSeconds) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.isPublic = isPublic;
+        this.createdAt = createdAt;
+        this.ownerId = ownerId;
+        this.ownerUsername = ownerUsername;
+        this.trackCount = trackCount != null ? trackCount : 0L;
+        this.totalDurationSeconds = totalDurationSeconds != null ? totalDurationSeconds : 0L;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+
+    public long getTrackCount() {
+        return trackCount;
+    }
+
+    public long getTotalDurationSeconds() {
+        return totalDurationSeconds;
+    }
+}
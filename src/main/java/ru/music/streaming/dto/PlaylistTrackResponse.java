@@ -1,5 +1,8 @@
 package ru.music.streaming.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PlaylistTrackResponse {
 
     private Long trackId;
@@ -0,0 +1,42 @@
+package ru.music.streaming.dto;
+
+public class SingleFlightStatsResponse {
+
+    private final String name;
+    private final long loads;
+    private final long coalesced;
+    private final long bypassed;
+    private final int inFlight;
+
+    public SingleFlightStatsResponse(String name,
+                                     long loads,
+                                     long coalesced,
+                                     long bypassed,
+                                     int inFlight) {
+        this.name = name;
+        this.loads = loads;
+        this.coalesced = coalesced;
+        this.bypassed = bypassed;
+        this.inFlight = inFlight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getBypassed() {
+        return bypassed;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.music.streaming.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseTrackResponse {
+
+    private final Long id;
+    private final String title;
+    private final String artist;
+    private final String album;
+    private final Integer durationSeconds;
+    private final String genre;
+    private final String audioUrl;
+
+    public SparseTrackResponse(Long id,
+                               String title,
+                               String artist,
+                               String album,
+                               Integer durationSeconds,
+                               String genre,
+                               String audioUrl) {
+        this.id = id;
+        this.title = title;
+        this.artist = artist;
+        this.album = album;
+        this.durationSeconds = durationSeconds;
+        this.genre = genre;
+        this.audioUrl = audioUrl;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getArtist() {
+        return artist;
+    }
+
+    public String getAlbum() {
+        return album;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getAudioUrl() {
+        return audioUrl;
+    }
+}
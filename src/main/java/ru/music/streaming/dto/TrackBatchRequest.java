@@ -0,0 +1,22 @@
+package ru.music.streaming.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class TrackBatchRequest {
+
+    @NotEmpty(message = "Укажите хотя бы один трек")
+    @Size(max = 500, message = "За один запрос можно получить не более 500 треков")
+    private List<@NotNull(message = "ID трека не может быть пустым") Long> ids;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
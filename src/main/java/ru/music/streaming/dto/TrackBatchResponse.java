@@ -0,0 +1,22 @@
+package ru.music.streaming.dto;
+
+import java.util.List;
+
+public class TrackBatchResponse {
+
+    private final List<SparseTrackResponse> tracks;
+    private final List<Long> missingIds;
+
+    public TrackBatchResponse(List<SparseTrackResponse> tracks, List<Long> missingIds) {
+        this.tracks = tracks;
+        this.missingIds = missingIds;
+    }
+
+    public List<SparseTrackResponse> getTracks() {
+        return tracks;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.music.streaming.dto;
+
+import java.time.LocalDateTime;
+
+public class TrackExportRow {
+
+    private final Long id;
+    private final String title;
+    private final String artistName;
+    private final String albumTitle;
+    private final Integer durationSeconds;
+    private final String genre;
+    private final String audioUrl;
+    private final LocalDateTime updatedAt;
+
+    public TrackExportRow(Long id, String title, String artistName, String albumTitle, Integer durationSeconds,
+                          String genre, String audioUrl, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.artistName = artistName;
+        this.albumTitle = albumTitle;
+        this.durationSeconds = durationSeconds;
+        this.genre = genre;
+        this.audioUrl = audioUrl;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getArtistName() {
+        return artistName;
+    }
+
+    public String getAlbumTitle() {
+        return albumTitle;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getAudioUrl() {
+        return audioUrl;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
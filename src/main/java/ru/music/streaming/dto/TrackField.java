@@ -0,0 +1,50 @@
+package ru.music.streaming.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum TrackField {
+    
+    ID("id"),
+    TITLE("title"),
+    ARTIST("artist"),
+    ALBUM("album"),
+    DURATION_SECONDS("durationSeconds"),
+    GENRE("genre"),
+    AUDIO_URL("audioUrl");
+    
+    private final String fieldName;
+    
+    TrackField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+    
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    public static Set<TrackField> parse(String fields, Set<TrackField> allowed) {
+        if (fields == null) {
+            return null;
+        }
+        Set<TrackField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            TrackField field = null;
+            for (TrackField candidate : values()) {
+                if (candidate.fieldName.equals(trimmed)) {
+                    field = candidate;
+                    break;
+                }
+            }
+            if (field == null || !allowed.contains(field)) {
+                throw new RuntimeException("Неизвестное поле в параметре fields: " + trimmed);
+            }
+            parsed.add(field);
+        }
+        return parsed;
+    }
+}
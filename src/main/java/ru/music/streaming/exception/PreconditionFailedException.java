@@ -0,0 +1,7 @@
+package ru.music.streaming.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -28,6 +28,10 @@ public class Artist {
     @Column(name = "country")
     private String country;
     
+    @Column(name = "discography_version", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long discographyVersion;
+    
     @OneToMany(mappedBy = "artist", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Track> tracks = new ArrayList<>();
@@ -73,6 +77,10 @@ public String getCountry() {
         return country;
     }
     
+    public Long getDiscographyVersion() {
+        return discographyVersion;
+    }
+    
     public void setCountry(String country) {
         this.country = country;
     }
@@ -0,0 +1,47 @@
+package ru.music.streaming.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+    
+    public enum Kind {
+        TRACKS,
+        ALBUMS,
+        ARTISTS,
+        PUBLIC_PLAYLISTS
+    }
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Kind kind;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    public CatalogVersion() {
+    }
+    
+    public CatalogVersion(Kind kind, Long version) {
+        this.kind = kind;
+        this.version = version;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.music.streaming.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -9,7 +10,7 @@
 import java.util.List;
 
 @Entity
-@Table(name = "playlists")
+@Table(name = "playlists", indexes = @Index(name = "idx_playlists_tracks_source_id", columnList = "tracks_source_id"))
 public class Playlist {
     
     @Id
@@ -35,7 +36,32 @@ public class Playlist {
     @Column(name = "is_public")
     private Boolean isPublic = false;
     
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version = 0L;
+    
+    @Column(name = "tracks_source_id")
+    @JsonIgnore
+    private Long tracksSourceId;
+    
+    @Column(name = "shuffle_seed")
+    @JsonIgnore
+    private Long shuffleSeed;
+    
+    @Column(name = "content_digest")
+    @JsonIgnore
+    private Long contentDigest;
+    
+    @Column(name = "track_count", updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long trackCount;
+    
+    @Column(name = "total_duration_seconds", updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long totalDurationSeconds;
+    
     @OneToMany(mappedBy = "playlist", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
     private List<PlaylistTrack> playlistTracks = new ArrayList<>();
     
     public Playlist() {
@@ -98,6 +124,54 @@ public void setIsPublic(Boolean isPublic) {
         this.isPublic = isPublic;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Long getShuffleSeed() {
+        return shuffleSeed;
+    }
+    
+    public void setShuffleSeed(Long shuffleSeed) {
+        this.shuffleSeed = shuffleSeed;
+    }
+    
+    public Long getContentDigest() {
+        return contentDigest;
+    }
+    
+    public void setContentDigest(Long contentDigest) {
+        this.contentDigest = contentDigest;
+    }
+    
+    public Long getTrackCount() {
+        return trackCount;
+    }
+    
+    public void setTrackCount(Long trackCount) {
+        this.trackCount = trackCount;
+    }
+    
+    public Long getTotalDurationSeconds() {
+        return totalDurationSeconds;
+    }
+    
+    public void setTotalDurationSeconds(Long totalDurationSeconds) {
+        this.totalDurationSeconds = totalDurationSeconds;
+    }
+    
+    public Long getTracksSourceId() {
+        return tracksSourceId;
+    }
+    
+    public void setTracksSourceId(Long tracksSourceId) {
+        this.tracksSourceId = tracksSourceId;
+    }
+    
     public List<PlaylistTrack> getPlaylistTracks() {
         return playlistTracks;
     }
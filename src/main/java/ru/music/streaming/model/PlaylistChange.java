@@ -0,0 +1,114 @@
+package ru.music.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "playlist_changes",
+       indexes = {
+           @Index(name = "idx_playlist_changes_playlist_revision", columnList = "playlist_id, revision"),
+           @Index(name = "idx_playlist_changes_created_at", columnList = "created_at")
+       })
+public class PlaylistChange {
+    
+    public enum Type {
+        ADD,
+        REMOVE,
+        MOVE,
+        UPDATE,
+        RESYNC
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+    
+    @Column(name = "playlist_id", nullable = false)
+    @JsonIgnore
+    private Long playlistId;
+    
+    @Column(nullable = false)
+    private Long revision;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+    
+    @Column(name = "track_id")
+    private Long trackId;
+    
+    private Integer position;
+    
+    @Column(name = "created_at", nullable = false)
+    @JsonIgnore
+    private LocalDateTime createdAt;
+    
+    public PlaylistChange() {
+    }
+    
+    public PlaylistChange(Type type, Long trackId, Integer position) {
+        this.type = type;
+        this.trackId = trackId;
+        this.position = position;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getPlaylistId() {
+        return playlistId;
+    }
+    
+    public void setPlaylistId(Long playlistId) {
+        this.playlistId = playlistId;
+    }
+    
+    public Long getRevision() {
+        return revision;
+    }
+    
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public Long getTrackId() {
+        return trackId;
+    }
+    
+    public void setTrackId(Long trackId) {
+        this.trackId = trackId;
+    }
+    
+    public Integer getPosition() {
+        return position;
+    }
+    
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
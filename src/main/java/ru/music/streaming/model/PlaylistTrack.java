@@ -10,6 +10,8 @@
        uniqueConstraints = @UniqueConstraint(columnNames = {"playlist_id", "position"}))
 public class PlaylistTrack {
     
+    public static final int POSITION_STEP = 1024;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -6,8 +6,10 @@
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "tracks")
+@Table(name = "tracks", indexes = @Index(name = "idx_tracks_updated_at", columnList = "updated_at"))
 public class Track {
     
     @Id
@@ -39,6 +41,9 @@ public class Track {
     @Column(name = "audio_url")
     private String audioUrl;
     
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
     public Track() {
     }
     
@@ -50,6 +55,12 @@ public Track(String title, Artist artist, Album album, Integer durationSeconds,
         this.genre = genre;
     }
     
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
     public Long getId() {
         return id;
     }
@@ -105,4 +116,12 @@ public String getAudioUrl() {
     public void setAudioUrl(String audioUrl) {
         this.audioUrl = audioUrl;
     }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -1,10 +1,16 @@
 package ru.music.streaming.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.music.streaming.model.Album;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, Long> {
@@ -12,4 +18,13 @@ public interface AlbumRepository extends JpaRepository<Album, Long> {
     List<Album> findByArtistId(Long artistId);
     
     List<Album> findByTitleContainingIgnoreCase(String title);
+    
+    List<Album> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS id, a.title AS text FROM Album a ORDER BY a.id")
+    Stream<SearchEntry> streamSearchEntries();
 }
@@ -0,0 +1,10 @@
+package ru.music.streaming.repository;
+
+public interface ArtistDiscographyHead {
+    
+    Long getId();
+    
+    String getName();
+    
+    Long getDiscographyVersion();
+}
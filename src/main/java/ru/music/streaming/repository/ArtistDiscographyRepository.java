@@ -0,0 +1,8 @@
+package ru.music.streaming.repository;
+
+import java.util.List;
+
+public interface ArtistDiscographyRepository {
+    
+    List<DiscographyRow> findDiscographyRows(Long artistId);
+}
@@ -0,0 +1,38 @@
+package ru.music.streaming.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class ArtistDiscographyRepositoryImpl implements ArtistDiscographyRepository {
+    
+    private static final String DISCOGRAPHY_SQL =
+            "SELECT al.id AS album_id, al.title AS album_title, al.release_date AS release_date, al.cover_url AS cover_url, " +
+            "t.id AS track_id, t.title AS track_title, t.duration_seconds AS duration_seconds, t.genre AS genre, t.audio_url AS audio_url " +
+            "FROM albums al LEFT JOIN tracks t ON t.album_id = al.id WHERE al.artist_id = ? " +
+            "UNION ALL " +
+            "SELECT NULL, NULL, NULL, NULL, t.id, t.title, t.duration_seconds, t.genre, t.audio_url " +
+            "FROM tracks t WHERE t.artist_id = ? AND t.album_id IS NULL " +
+            "ORDER BY release_date NULLS LAST, album_id NULLS LAST, track_id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ArtistDiscographyRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public List<DiscographyRow> findDiscographyRows(Long artistId) {
+        return jdbcTemplate.query(DISCOGRAPHY_SQL, (rs, rowNum) -> new DiscographyRow(
+                rs.getObject("album_id", Long.class),
+                rs.getString("album_title"),
+                rs.getObject("release_date", LocalDate.class),
+                rs.getString("cover_url"),
+                rs.getObject("track_id", Long.class),
+                rs.getString("track_title"),
+                rs.getObject("duration_seconds", Integer.class),
+                rs.getString("genre"),
+                rs.getString("audio_url")), artistId, artistId);
+    }
+}
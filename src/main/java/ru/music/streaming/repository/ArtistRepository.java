@@ -1,15 +1,40 @@
 package ru.music.streaming.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.music.streaming.model.Artist;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ArtistRepository extends JpaRepository<Artist, Long> {
+public interface ArtistRepository extends JpaRepository<Artist, Long>, ArtistDiscographyRepository {
     
     List<Artist> findByNameContainingIgnoreCase(String name);
     
     List<Artist> findByCountry(String country);
+    
+    List<Artist> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    @Query("SELECT a.id AS id, a.name AS name, COALESCE(a.discographyVersion, 0) AS discographyVersion FROM Artist a WHERE a.id = :id")
+    Optional<ArtistDiscographyHead> findDiscographyHeadById(Long id);
+    
+    @Modifying
+    @Query(value = "UPDATE artists SET discography_version = COALESCE(discography_version, 0) + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int bumpDiscographyVersion(Collection<Long> ids);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS id, a.name AS text FROM Artist a ORDER BY a.id")
+    Stream<SearchEntry> streamSearchEntries();
 }
@@ -0,0 +1,15 @@
+package ru.music.streaming.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.music.streaming.model.CatalogVersion;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, CatalogVersion.Kind> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO catalog_versions (kind, version) VALUES (:kind, 1) ON CONFLICT (kind) DO UPDATE SET version = catalog_versions.version + 1", nativeQuery = true)
+    int bump(String kind);
+}
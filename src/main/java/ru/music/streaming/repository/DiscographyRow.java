@@ -0,0 +1,14 @@
+package ru.music.streaming.repository;
+
+import java.time.LocalDate;
+
+public record DiscographyRow(Long albumId,
+                             String albumTitle,
+                             LocalDate releaseDate,
+                             String coverUrl,
+                             Long trackId,
+                             String trackTitle,
+                             Integer durationSeconds,
+                             String genre,
+                             String audioUrl) {
+}
@@ -0,0 +1,8 @@
+package ru.music.streaming.repository;
+
+public interface LibraryTrackCounts {
+    
+    Long getUniqueTracks();
+    
+    Long getUniqueArtists();
+}
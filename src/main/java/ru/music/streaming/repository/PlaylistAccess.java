@@ -0,0 +1,12 @@
+package ru.music.streaming.repository;
+
+public interface PlaylistAccess extends PlaylistTracksSource {
+    
+    Long getId();
+    
+    Long getOwnerId();
+    
+    Boolean getIsPublic();
+    
+    Long getVersion();
+}
@@ -0,0 +1,10 @@
+package ru.music.streaming.repository;
+
+import ru.music.streaming.model.PlaylistChange;
+
+import java.util.List;
+
+public interface PlaylistChangeBatchRepository {
+    
+    void batchInsert(List<PlaylistChange> changes);
+}
@@ -0,0 +1,30 @@
+package ru.music.streaming.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.music.streaming.model.PlaylistChange;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlaylistChangeBatchRepositoryImpl implements PlaylistChangeBatchRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public PlaylistChangeBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void batchInsert(List<PlaylistChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (PlaylistChange change : changes) {
+            rows.add(new Object[]{change.getPlaylistId(), change.getRevision(), change.getType().name(),
+                    change.getTrackId(), change.getPosition(), Timestamp.valueOf(change.getCreatedAt())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO playlist_changes (playlist_id, revision, type, track_id, position, created_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
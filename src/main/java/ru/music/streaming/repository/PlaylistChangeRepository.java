@@ -0,0 +1,31 @@
+package ru.music.streaming.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.music.streaming.model.PlaylistChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PlaylistChangeRepository extends JpaRepository<PlaylistChange, Long>, PlaylistChangeBatchRepository {
+    
+    List<PlaylistChange> findByPlaylistIdAndRevisionGreaterThanOrderByRevisionAscIdAsc(Long playlistId, Long revision, Limit limit);
+    
+    boolean existsByPlaylistIdAndRevision(Long playlistId, Long revision);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PlaylistChange c WHERE c.playlistId = :playlistId")
+    int deleteByPlaylistId(Long playlistId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PlaylistChange c WHERE c.playlistId IN (SELECT p.id FROM Playlist p WHERE p.user.id = :userId)")
+    int deleteByUserId(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM PlaylistChange c WHERE c.createdAt < :threshold")
+    int deleteOlderThan(LocalDateTime threshold);
+}
@@ -1,22 +1,173 @@
 package ru.music.streaming.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.music.streaming.dto.PlaylistSummaryResponse;
 import ru.music.streaming.model.Playlist;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
     
+    String TRACK_COUNT = "COALESCE(p.trackCount, (SELECT COUNT(c) FROM PlaylistTrack c WHERE c.playlist.id = COALESCE(p.tracksSourceId, p.id)))";
+    
+    String TOTAL_DURATION = "COALESCE(p.totalDurationSeconds, (SELECT SUM(ct.durationSeconds) FROM PlaylistTrack c JOIN c.track ct WHERE c.playlist.id = COALESCE(p.tracksSourceId, p.id)))";
+    
+    String SUMMARY_SELECT = "SELECT new ru.music.streaming.dto.PlaylistSummaryResponse(p.id, p.name, p.description, p.isPublic, p.createdAt, u.id, u.username, " +
+            TRACK_COUNT + ", " + TOTAL_DURATION + ") FROM Playlist p LEFT JOIN p.user u ";
+    
+    String SUMMARY_ORDER = " ORDER BY p.id";
+    
+    String TRACK_TOTALS_SOURCE = "SELECT pt.playlist_id, COUNT(*) AS track_count, COALESCE(SUM(t.duration_seconds), 0) AS total_duration " +
+            "FROM playlist_tracks pt JOIN tracks t ON t.id = pt.track_id ";
+    
+    @Query(SUMMARY_SELECT + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findAllSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id > :after" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findSummariesAfter(Long after, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.isPublic = true" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findPublicSummaries();
+    
+    @Query("SELECT p.isPublic FROM Playlist p WHERE p.id = :id")
+    Optional<Boolean> findIsPublicById(Long id);
+    
+    boolean existsByUserIdAndIsPublicTrue(Long userId);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id > :after AND p.isPublic = true" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findPublicSummariesAfter(Long after, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id > :after AND (p.isPublic = true OR u.id = :userId)" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findVisibleSummariesAfter(Long after, Long userId, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findSummariesByUserId(Long userId);
+    
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId AND p.isPublic = true" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findPublicSummariesByUserId(Long userId);
+    
+    @Query(SUMMARY_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> searchSummaries(String name);
+    
+    @Query(SUMMARY_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND p.isPublic = true" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> searchPublicSummaries(String name);
+    
+    @Query(SUMMARY_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND (p.isPublic = true OR u.id = :userId)" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> searchVisibleSummaries(String name, Long userId);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findSummariesByIdIn(Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids AND p.isPublic = true" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findPublicSummariesByIdIn(Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids AND (p.isPublic = true OR u.id = :userId)" + SUMMARY_ORDER)
+    List<PlaylistSummaryResponse> findVisibleSummariesByIdIn(Collection<Long> ids, Long userId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id AS id, p.name AS text FROM Playlist p ORDER BY p.id")
+    Stream<SearchEntry> streamSearchEntries();
+    
     @Query("SELECT DISTINCT p FROM Playlist p LEFT JOIN FETCH p.playlistTracks WHERE p.id = :id")
     Optional<Playlist> findByIdWithTracks(Long id);
     
     List<Playlist> findByUserId(Long userId);
     
-    List<Playlist> findByIsPublic(Boolean isPublic);
+    @Query("SELECT p.id FROM Playlist p WHERE p.user.id = :userId")
+    List<Long> findIdsByUserId(Long userId);
+    
+    @Query("SELECT COALESCE(p.version, 0) FROM Playlist p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Playlist p SET p.version = COALESCE(p.version, 0) + 1 WHERE p.id = :id")
+    int incrementVersion(Long id);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Playlist p SET p.version = COALESCE(p.version, 0) + 1 WHERE p.id = :id AND COALESCE(p.version, 0) = :expectedVersion")
+    int incrementVersionIfMatches(Long id, Long expectedVersion);
+    
+    @Query("SELECT COALESCE(p.tracksSourceId, p.id) AS tracksPlaylistId, p.shuffleSeed AS shuffleSeed, p.contentDigest AS contentDigest FROM Playlist p WHERE p.id = :id")
+    Optional<PlaylistTracksSource> findTracksSourceById(Long id);
+    
+    @Query("SELECT p.id AS id, p.user.id AS ownerId, p.isPublic AS isPublic, COALESCE(p.version, 0) AS version, " +
+            "COALESCE(p.tracksSourceId, p.id) AS tracksPlaylistId, p.shuffleSeed AS shuffleSeed, p.contentDigest AS contentDigest " +
+            "FROM Playlist p WHERE p.id = :id")
+    Optional<PlaylistAccess> findAccessById(Long id);
+    
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE playlists SET track_count = track_count + :trackDelta, total_duration_seconds = total_duration_seconds + :durationDelta " +
+            "WHERE id = :id AND track_count IS NOT NULL AND total_duration_seconds IS NOT NULL", nativeQuery = true)
+    int adjustTrackTotals(Long id, long trackDelta, long durationDelta);
+    
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE playlists p SET track_count = COALESCE(s.track_count, 0), total_duration_seconds = COALESCE(s.total_duration, 0) " +
+            "FROM playlists q LEFT JOIN (" + TRACK_TOTALS_SOURCE + "GROUP BY pt.playlist_id) s ON s.playlist_id = COALESCE(q.tracks_source_id, q.id) " +
+            "WHERE p.id = q.id AND q.id = :id", nativeQuery = true)
+    int recomputeTrackTotals(Long id);
+    
+    @Query(value = "SELECT id FROM playlists WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsAfter(Long afterId, int limit);
+    
+    @Modifying
+    @Query(value = "WITH q AS (SELECT id, COALESCE(tracks_source_id, id) AS tracks_playlist_id FROM playlists WHERE id IN :ids) " +
+            "UPDATE playlists p SET track_count = COALESCE(s.track_count, 0), total_duration_seconds = COALESCE(s.total_duration, 0) " +
+            "FROM q LEFT JOIN (" + TRACK_TOTALS_SOURCE + "WHERE pt.playlist_id IN (SELECT tracks_playlist_id FROM q) GROUP BY pt.playlist_id) s " +
+            "ON s.playlist_id = q.tracks_playlist_id " +
+            "WHERE p.id = q.id AND (p.track_count IS DISTINCT FROM COALESCE(s.track_count, 0) " +
+            "OR p.total_duration_seconds IS DISTINCT FROM COALESCE(s.total_duration, 0))", nativeQuery = true)
+    int repairTrackTotals(Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE playlists p SET total_duration_seconds = p.total_duration_seconds + :durationDelta * " +
+            "(SELECT COUNT(*) FROM playlist_tracks pt WHERE pt.playlist_id = COALESCE(p.tracks_source_id, p.id) AND pt.track_id = :trackId) " +
+            "WHERE p.total_duration_seconds IS NOT NULL AND EXISTS (SELECT 1 FROM playlist_tracks pt " +
+            "WHERE pt.playlist_id = COALESCE(p.tracks_source_id, p.id) AND pt.track_id = :trackId)", nativeQuery = true)
+    int adjustDurationForTrack(Long trackId, long durationDelta);
+    
+    @Query("SELECT COUNT(p) AS playlistCount, COALESCE(SUM(" + TRACK_COUNT + "), 0) AS trackCount, " +
+            "COALESCE(SUM(" + TOTAL_DURATION + "), 0) AS totalDurationSeconds FROM Playlist p WHERE p.user.id = :userId")
+    PlaylistTotals findTotalsByUserId(Long userId);
+    
+    @Query("SELECT p.contentDigest FROM Playlist p WHERE p.id = :id")
+    Optional<Long> findContentDigestById(Long id);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Playlist p SET p.contentDigest = :contentDigest WHERE p.id = :id")
+    int updateContentDigest(Long id, Long contentDigest);
+    
+    @Query("SELECT MIN(p.id) FROM Playlist p WHERE p.tracksSourceId = :sourcePlaylistId")
+    Long findFirstSharedCopyId(Long sourcePlaylistId);
+    
+    @Query("SELECT MIN(p.id) FROM Playlist p WHERE p.tracksSourceId = :sourcePlaylistId AND p.user.id <> :userId")
+    Long findFirstSharedCopyIdOutsideUser(Long sourcePlaylistId, Long userId);
+    
+    @Query("SELECT DISTINCT p.tracksSourceId FROM Playlist p WHERE p.user.id <> :userId AND p.tracksSourceId IN (SELECT o.id FROM Playlist o WHERE o.user.id = :userId)")
+    List<Long> findSharedSourceIdsOfUser(Long userId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Playlist p SET p.shuffleSeed = :shuffleSeed WHERE p.id = :id")
+    int updateShuffleSeed(Long id, Long shuffleSeed);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Playlist p SET p.tracksSourceId = NULL WHERE p.id = :id")
+    int detachTracksSource(Long id);
     
-    List<Playlist> findByNameContainingIgnoreCase(String name);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Playlist p SET p.tracksSourceId = :heirId WHERE p.tracksSourceId = :sourcePlaylistId")
+    int repointSharedCopies(Long sourcePlaylistId, Long heirId);
 }
@@ -0,0 +1,10 @@
+package ru.music.streaming.repository;
+
+public interface PlaylistTotals {
+    
+    Long getPlaylistCount();
+    
+    Long getTrackCount();
+    
+    Long getTotalDurationSeconds();
+}
@@ -0,0 +1,10 @@
+package ru.music.streaming.repository;
+
+import java.util.List;
+
+public interface PlaylistTrackBatchRepository {
+    
+    void batchInsert(Long playlistId, List<Long> trackIds, List<Integer> positions);
+    
+    void batchUpdatePositions(List<Long> ids, List<Integer> positions);
+}
@@ -0,0 +1,39 @@
+package ru.music.streaming.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlaylistTrackBatchRepositoryImpl implements PlaylistTrackBatchRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public PlaylistTrackBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void batchInsert(Long playlistId, List<Long> trackIds, List<Integer> positions) {
+        if (trackIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(trackIds.size());
+        for (int i = 0; i < trackIds.size(); i++) {
+            rows.add(new Object[]{playlistId, trackIds.get(i), positions.get(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO playlist_tracks (playlist_id, track_id, position) VALUES (?, ?, ?)", rows);
+    }
+    
+    @Override
+    public void batchUpdatePositions(List<Long> ids, List<Integer> positions) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            rows.add(new Object[]{positions.get(i), ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE playlist_tracks SET position = ? WHERE id = ?", rows);
+    }
+}
@@ -1,33 +1,105 @@
 package ru.music.streaming.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.music.streaming.model.PlaylistTrack;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PlaylistTrackRepository extends JpaRepository<PlaylistTrack, Long> {
+public interface PlaylistTrackRepository extends JpaRepository<PlaylistTrack, Long>, PlaylistTrackBatchRepository, PlaylistTrackViewRepository {
+    
+    String SHUFFLE_KEY = "hashtextextended(CAST(position AS text), :seed)";
     
     @Query("SELECT pt FROM PlaylistTrack pt JOIN FETCH pt.track t LEFT JOIN FETCH t.artist LEFT JOIN FETCH t.album WHERE pt.playlist.id = :playlistId ORDER BY pt.position ASC")
     List<PlaylistTrack> findByPlaylistIdOrderByPositionAsc(Long playlistId);
 
+    @Query("SELECT pt FROM PlaylistTrack pt JOIN FETCH pt.track t LEFT JOIN FETCH t.artist LEFT JOIN FETCH t.album WHERE pt.playlist.id = :playlistId AND pt.position > :afterPosition ORDER BY pt.position ASC")
+    List<PlaylistTrack> findPageByPlaylistIdAfterPosition(Long playlistId, Integer afterPosition, Limit limit);
+
     @Query("SELECT pt FROM PlaylistTrack pt JOIN FETCH pt.track t LEFT JOIN FETCH t.artist LEFT JOIN FETCH t.album WHERE pt.playlist.id = :playlistId")
     List<PlaylistTrack> findByPlaylistId(Long playlistId);
-    
-    Optional<PlaylistTrack> findByPlaylistIdAndPosition(Long playlistId, Integer position);
+
+    @Query("SELECT pt FROM PlaylistTrack pt JOIN FETCH pt.track t LEFT JOIN FETCH t.artist LEFT JOIN FETCH t.album WHERE pt.id IN :ids")
+    List<PlaylistTrack> findWithTrackByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM playlist_tracks WHERE playlist_id = :playlistId AND (:afterPosition < 0 OR (" + SHUFFLE_KEY + ", position) > " +
+            "(hashtextextended(CAST(:afterPosition AS text), :seed), :afterPosition)) ORDER BY " + SHUFFLE_KEY + ", position LIMIT :limit", nativeQuery = true)
+    List<Long> findShuffledIds(Long playlistId, long seed, int afterPosition, int limit);
+
+    boolean existsByPlaylistId(Long playlistId);
 
     Optional<PlaylistTrack> findByPlaylistIdAndTrackId(Long playlistId, Long trackId);
-    
-    boolean existsByPlaylistIdAndPosition(Long playlistId, Integer position);
 
     boolean existsByPlaylistIdAndTrackId(Long playlistId, Long trackId);
+
+    long countByPlaylistId(Long playlistId);
+
+    @Query("SELECT pt.track.id FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId AND pt.track.id IN :trackIds")
+    List<Long> findTrackIdsByPlaylistIdAndTrackIdIn(Long playlistId, Collection<Long> trackIds);
     
     @Query("SELECT MAX(pt.position) FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId")
     Integer findMaxPositionByPlaylistId(Long playlistId);
 
-    @Query("SELECT pt FROM PlaylistTrack pt JOIN FETCH pt.track t LEFT JOIN FETCH t.artist LEFT JOIN FETCH t.album WHERE pt.playlist.user.id = :userId")
+    @Query("SELECT pt.id AS id, pt.track.id AS trackId, pt.position AS position FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId AND pt.track.id = :trackId")
+    Optional<PlaylistTrackSlot> findSlotByPlaylistIdAndTrackId(Long playlistId, Long trackId);
+
+    @Query("SELECT pt.id AS id, pt.track.id AS trackId, pt.position AS position FROM PlaylistTrack pt WHERE pt.id = :id")
+    Optional<PlaylistTrackSlot> findSlotById(Long id);
+
+    @Query("SELECT pt.id AS id, pt.track.id AS trackId, pt.position AS position FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId ORDER BY pt.position ASC")
+    List<PlaylistTrackSlot> findSlotsByPlaylistId(Long playlistId);
+
+    @Query("SELECT pt.id AS id, pt.track.id AS trackId, pt.position AS position FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId AND pt.position BETWEEN :fromPosition AND :toPosition")
+    List<PlaylistTrackSlot> findSlotsInPositionRange(Long playlistId, int fromPosition, int toPosition);
+
+    @Query(value = "SELECT id AS \"id\", track_id AS \"trackId\", position AS \"position\" FROM playlist_tracks WHERE playlist_id = :playlistId ORDER BY position LIMIT 1 OFFSET :offset", nativeQuery = true)
+    Optional<PlaylistTrackSlot> findSlotAtOffset(Long playlistId, int offset);
+
+    @Query(value = "SELECT position FROM playlist_tracks WHERE playlist_id = :playlistId AND id <> :excludedId ORDER BY position LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Integer> findPositionWindow(Long playlistId, Long excludedId, int offset, int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO playlist_tracks (playlist_id, track_id, position) SELECT :targetPlaylistId, track_id, position FROM playlist_tracks WHERE playlist_id = :sourcePlaylistId", nativeQuery = true)
+    int copyTracks(Long sourcePlaylistId, Long targetPlaylistId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE playlist_tracks SET playlist_id = :targetPlaylistId WHERE playlist_id = :sourcePlaylistId", nativeQuery = true)
+    int moveTracks(Long sourcePlaylistId, Long targetPlaylistId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PlaylistTrack pt SET pt.position = :position WHERE pt.id = :id")
+    int updatePosition(Long id, Integer position);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PlaylistTrack pt SET pt.position = -pt.position - 1 WHERE pt.id IN :ids")
+    int stashPositions(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE playlist_tracks SET position = -(position + :delta) - 1 WHERE playlist_id = :playlistId AND position BETWEEN :fromPosition AND :toPosition", nativeQuery = true)
+    int stashShiftedRange(Long playlistId, int fromPosition, int toPosition, int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE playlist_tracks SET position = -position - 1 WHERE playlist_id = :playlistId AND position < 0", nativeQuery = true)
+    int restoreShiftedRange(Long playlistId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE playlist_tracks pt SET position = -ordered.rn FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY position) AS rn FROM playlist_tracks WHERE playlist_id = :playlistId) ordered WHERE pt.id = ordered.id", nativeQuery = true)
+    int stashPositionsInOrder(Long playlistId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE playlist_tracks SET position = -position * :step WHERE playlist_id = :playlistId AND position < 0", nativeQuery = true)
+    int spreadStashedPositions(Long playlistId, int step);
+
+    @Query("SELECT pt FROM PlaylistTrack pt JOIN FETCH pt.track t LEFT JOIN FETCH t.artist LEFT JOIN FETCH t.album WHERE pt.playlist.id IN (SELECT COALESCE(p.tracksSourceId, p.id) FROM Playlist p WHERE p.user.id = :userId)")
     List<PlaylistTrack> findByUserId(Long userId);
+    
+    @Query("SELECT COUNT(DISTINCT t.id) AS uniqueTracks, COUNT(DISTINCT t.artist.id) AS uniqueArtists FROM PlaylistTrack pt JOIN pt.track t " +
+            "WHERE pt.playlist.id IN (SELECT COALESCE(p.tracksSourceId, p.id) FROM Playlist p WHERE p.user.id = :userId)")
+    LibraryTrackCounts findLibraryCountsByUserId(Long userId);
 }
@@ -0,0 +1,10 @@
+package ru.music.streaming.repository;
+
+public interface PlaylistTrackSlot {
+    
+    Long getId();
+    
+    Long getTrackId();
+    
+    Integer getPosition();
+}
@@ -0,0 +1,15 @@
+package ru.music.streaming.repository;
+
+import ru.music.streaming.dto.TrackField;
+
+import java.util.List;
+import java.util.Set;
+
+public interface PlaylistTrackViewRepository {
+    
+    List<PlaylistTrackViewRow> findViewRows(Long playlistId, Set<TrackField> fields);
+    
+    List<PlaylistTrackViewRow> findViewRowsAfterPosition(Long playlistId, Integer afterPosition, int limit, Set<TrackField> fields);
+    
+    List<PlaylistTrackViewRow> findShuffledViewRows(Long playlistId, long seed, int afterPosition, int limit, Set<TrackField> fields);
+}
@@ -0,0 +1,50 @@
+package ru.music.streaming.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.music.streaming.dto.TrackField;
+
+import java.util.List;
+import java.util.Set;
+
+public class PlaylistTrackViewRepositoryImpl implements PlaylistTrackViewRepository {
+    
+    private static final String SHUFFLE_KEY = "hashtextextended(CAST(pt.position AS text), ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public PlaylistTrackViewRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public List<PlaylistTrackViewRow> findViewRows(Long playlistId, Set<TrackField> fields) {
+        return findViewRows("pt.playlist_id = ? ORDER BY pt.position", fields, playlistId);
+    }
+    
+    @Override
+    public List<PlaylistTrackViewRow> findViewRowsAfterPosition(Long playlistId, Integer afterPosition, int limit, Set<TrackField> fields) {
+        return findViewRows("pt.playlist_id = ? AND pt.position > ? ORDER BY pt.position LIMIT ?", fields,
+                playlistId, afterPosition, limit);
+    }
+    
+    @Override
+    public List<PlaylistTrackViewRow> findShuffledViewRows(Long playlistId, long seed, int afterPosition, int limit, Set<TrackField> fields) {
+        String condition = "pt.playlist_id = ? AND (? < 0 OR (" + SHUFFLE_KEY + ", pt.position) > (hashtextextended(CAST(? AS text), ?), ?))" +
+                " ORDER BY " + SHUFFLE_KEY + ", pt.position LIMIT ?";
+        return findViewRows(condition, fields, playlistId, afterPosition, seed, afterPosition, seed, afterPosition, seed, limit);
+    }
+    
+    private List<PlaylistTrackViewRow> findViewRows(String condition, Set<TrackField> fields, Object... args) {
+        StringBuilder sql = new StringBuilder("SELECT pt.id AS pt_id, pt.position AS pt_position, pt.track_id AS id")
+                .append(TrackColumns.select(fields))
+                .append(" FROM playlist_tracks pt");
+        if (TrackColumns.needsTrackRow(fields)) {
+            sql.append(" JOIN tracks t ON t.id = pt.track_id").append(TrackColumns.joins(fields));
+        }
+        sql.append(" WHERE ").append(condition);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new PlaylistTrackViewRow(
+                rs.getLong("pt_id"),
+                rs.getInt("pt_position"),
+                TrackColumns.map(rs, fields)), args);
+    }
+}
@@ -0,0 +1,6 @@
+package ru.music.streaming.repository;
+
+import ru.music.streaming.dto.SparseTrackResponse;
+
+public record PlaylistTrackViewRow(Long id, Integer position, SparseTrackResponse track) {
+}
@@ -0,0 +1,10 @@
+package ru.music.streaming.repository;
+
+public interface PlaylistTracksSource {
+    
+    Long getTracksPlaylistId();
+    
+    Long getShuffleSeed();
+    
+    Long getContentDigest();
+}
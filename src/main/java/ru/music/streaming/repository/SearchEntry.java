@@ -0,0 +1,8 @@
+package ru.music.streaming.repository;
+
+public interface SearchEntry {
+    
+    Long getId();
+    
+    String getText();
+}
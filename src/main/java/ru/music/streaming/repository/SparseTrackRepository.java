@@ -0,0 +1,14 @@
+package ru.music.streaming.repository;
+
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackField;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SparseTrackRepository {
+    
+    List<SparseTrackResponse> findSparseByArtistId(Long artistId, Set<TrackField> fields);
+    
+    List<SparseTrackResponse> findSparseByAlbumId(Long albumId, Set<TrackField> fields);
+}
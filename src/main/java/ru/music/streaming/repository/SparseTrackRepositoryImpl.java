@@ -0,0 +1,33 @@
+package ru.music.streaming.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackField;
+
+import java.util.List;
+import java.util.Set;
+
+public class SparseTrackRepositoryImpl implements SparseTrackRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public SparseTrackRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public List<SparseTrackResponse> findSparseByArtistId(Long artistId, Set<TrackField> fields) {
+        return findSparse("t.artist_id = ?", artistId, fields);
+    }
+    
+    @Override
+    public List<SparseTrackResponse> findSparseByAlbumId(Long albumId, Set<TrackField> fields) {
+        return findSparse("t.album_id = ?", albumId, fields);
+    }
+    
+    private List<SparseTrackResponse> findSparse(String condition, Long value, Set<TrackField> fields) {
+        String sql = "SELECT t.id AS id" + TrackColumns.select(fields) + " FROM tracks t" + TrackColumns.joins(fields)
+                + " WHERE " + condition + " ORDER BY t.id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> TrackColumns.map(rs, fields), value);
+    }
+}
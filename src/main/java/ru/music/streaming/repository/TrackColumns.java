@@ -0,0 +1,57 @@
+package ru.music.streaming.repository;
+
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackField;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+final class TrackColumns {
+    
+    private TrackColumns() {
+    }
+    
+    static String select(Set<TrackField> fields) {
+        StringBuilder sql = new StringBuilder();
+        for (TrackField field : fields) {
+            switch (field) {
+                case TITLE -> sql.append(", t.title AS title");
+                case ARTIST -> sql.append(", a.name AS artist");
+                case ALBUM -> sql.append(", al.title AS album");
+                case DURATION_SECONDS -> sql.append(", t.duration_seconds AS duration_seconds");
+                case GENRE -> sql.append(", t.genre AS genre");
+                case AUDIO_URL -> sql.append(", t.audio_url AS audio_url");
+                default -> {
+                }
+            }
+        }
+        return sql.toString();
+    }
+    
+    static boolean needsTrackRow(Set<TrackField> fields) {
+        return fields.size() > 1;
+    }
+    
+    static String joins(Set<TrackField> fields) {
+        StringBuilder sql = new StringBuilder();
+        if (fields.contains(TrackField.ARTIST)) {
+            sql.append(" LEFT JOIN artists a ON a.id = t.artist_id");
+        }
+        if (fields.contains(TrackField.ALBUM)) {
+            sql.append(" LEFT JOIN albums al ON al.id = t.album_id");
+        }
+        return sql.toString();
+    }
+    
+    static SparseTrackResponse map(ResultSet rs, Set<TrackField> fields) throws SQLException {
+        return new SparseTrackResponse(
+                rs.getLong("id"),
+                fields.contains(TrackField.TITLE) ? rs.getString("title") : null,
+                fields.contains(TrackField.ARTIST) ? rs.getString("artist") : null,
+                fields.contains(TrackField.ALBUM) ? rs.getString("album") : null,
+                fields.contains(TrackField.DURATION_SECONDS) ? rs.getObject("duration_seconds", Integer.class) : null,
+                fields.contains(TrackField.GENRE) ? rs.getString("genre") : null,
+                fields.contains(TrackField.AUDIO_URL) ? rs.getString("audio_url") : null);
+    }
+}
@@ -1,13 +1,49 @@
 package ru.music.streaming.repository;
 
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackExportRow;
 import ru.music.streaming.model.Track;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TrackRepository extends JpaRepository<Track, Long> {
+public interface TrackRepository extends JpaRepository<Track, Long>, SparseTrackRepository {
+    
+    String EXPORT_SELECT = "SELECT new ru.music.streaming.dto.TrackExportRow(t.id, t.title, a.name, al.title, t.durationSeconds, t.genre, t.audioUrl, t.updatedAt) " +
+            "FROM Track t LEFT JOIN t.artist a LEFT JOIN t.album al ";
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "ORDER BY t.id")
+    Stream<TrackExportRow> streamExportRows();
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "WHERE t.updatedAt >= :updatedSince ORDER BY t.id")
+    Stream<TrackExportRow> streamExportRowsUpdatedSince(LocalDateTime updatedSince);
+    
+    @Modifying
+    @Query("UPDATE Track t SET t.updatedAt = :updatedAt WHERE t.artist.id = :artistId")
+    int touchByArtistId(Long artistId, LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("UPDATE Track t SET t.updatedAt = :updatedAt WHERE t.album.id = :albumId")
+    int touchByAlbumId(Long albumId, LocalDateTime updatedAt);
     
     List<Track> findByArtistId(Long artistId);
     
@@ -16,4 +52,23 @@ public interface TrackRepository extends JpaRepository<Track, Long> {
     List<Track> findByTitleContainingIgnoreCase(String title);
     
     List<Track> findByGenre(String genre);
+    
+    @Query("SELECT new ru.music.streaming.dto.SparseTrackResponse(t.id, t.title, a.name, al.title, t.durationSeconds, t.genre, t.audioUrl) " +
+            "FROM Track t LEFT JOIN t.artist a LEFT JOIN t.album al WHERE t.id IN :ids")
+    List<SparseTrackResponse> findResponsesByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT t.id FROM Track t WHERE t.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+    
+    @Query("SELECT COALESCE(SUM(t.durationSeconds), 0) FROM Track t WHERE t.id IN :ids")
+    long sumDurationByIdIn(Collection<Long> ids);
+    
+    List<Track> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id AS id, t.title AS text FROM Track t ORDER BY t.id")
+    Stream<SearchEntry> streamSearchEntries();
 }
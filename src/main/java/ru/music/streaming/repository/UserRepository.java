@@ -1,9 +1,11 @@
 package ru.music.streaming.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.music.streaming.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +18,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     boolean existsByUsername(String username);
+    
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
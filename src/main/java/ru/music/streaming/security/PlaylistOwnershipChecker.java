@@ -6,11 +6,24 @@
 import ru.music.streaming.model.Playlist;
 import ru.music.streaming.model.Role;
 import ru.music.streaming.model.User;
+import ru.music.streaming.repository.PlaylistAccess;
 
 @Component
 public class PlaylistOwnershipChecker {
     
     public boolean isOwnerOrAdmin(Playlist playlist) {
+        return isOwnerOrAdmin(playlist.getUser() == null ? null : playlist.getUser().getId());
+    }
+    
+    public boolean isOwnerOrAdmin(PlaylistAccess access) {
+        return isOwnerOrAdmin(access.getOwnerId());
+    }
+    
+    public boolean canRead(PlaylistAccess access) {
+        return Boolean.TRUE.equals(access.getIsPublic()) || isOwnerOrAdmin(access);
+    }
+    
+    private boolean isOwnerOrAdmin(Long ownerId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return false;
@@ -32,10 +45,10 @@ public boolean isOwnerOrAdmin(Playlist playlist) {
             return true;
         }
         
-        if (playlist.getUser() == null) {
+        if (ownerId == null) {
             return false;
         }
-        return playlist.getUser().getId().equals(currentUser.getId());
+        return ownerId.equals(currentUser.getId());
     }
     
     public User getCurrentUser() {
@@ -1,37 +1,66 @@
 package ru.music.streaming.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.dto.CursorPageResponse;
 import ru.music.streaming.model.Album;
 import ru.music.streaming.model.Artist;
+import ru.music.streaming.model.CatalogVersion;
+import ru.music.streaming.model.Track;
 import ru.music.streaming.repository.AlbumRepository;
+import ru.music.streaming.repository.TrackRepository;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class AlbumService {
     
     private final AlbumRepository albumRepository;
     private final ArtistService artistService;
+    private final TrackRepository trackRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogSearchIndex searchIndex;
     
     @Autowired
-    public AlbumService(AlbumRepository albumRepository, ArtistService artistService) {
+    public AlbumService(AlbumRepository albumRepository,
+                        ArtistService artistService,
+                        TrackRepository trackRepository,
+                        CatalogVersionService catalogVersionService,
+                        CatalogSearchIndex searchIndex) {
         this.albumRepository = albumRepository;
         this.artistService = artistService;
+        this.trackRepository = trackRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.searchIndex = searchIndex;
     }
     
     @Transactional
     public Album createAlbum(Album album, Long artistId) {
+        catalogVersionService.bump(CatalogVersion.Kind.ALBUMS);
         Artist artist = artistService.getArtistById(artistId);
         album.setArtist(artist);
-        return albumRepository.save(album);
+        artistService.touchDiscography(List.of(artistId));
+        Album saved = albumRepository.save(album);
+        searchIndex.put(CatalogSearchIndex.Kind.ALBUMS, saved.getId(), saved.getTitle());
+        return saved;
     }
     
     public List<Album> getAllAlbums() {
         return albumRepository.findAll();
     }
     
+    public CursorPageResponse<Album> getAlbumsPage(Long after, int limit) {
+        PageLimits.check(limit);
+        List<Album> rows = albumRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, Album::getId);
+    }
+    
     public Album getAlbumById(Long id) {
         return albumRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Альбом с ID " + id + " не найден"));
@@ -39,8 +68,14 @@ public Album getAlbumById(Long id) {
     
     @Transactional
     public Album updateAlbum(Long id, Album albumDetails, Long artistId) {
+        catalogVersionService.bump(CatalogVersion.Kind.ALBUMS);
         Album album = getAlbumById(id);
+        Set<Long> artistIds = new HashSet<>();
+        artistIds.add(album.getArtist().getId());
         
+        if (!Objects.equals(album.getTitle(), albumDetails.getTitle())) {
+            trackRepository.touchByAlbumId(id, LocalDateTime.now());
+        }
         album.setTitle(albumDetails.getTitle());
         album.setReleaseDate(albumDetails.getReleaseDate());
         album.setCoverUrl(albumDetails.getCoverUrl());
@@ -48,15 +83,22 @@ public Album updateAlbum(Long id, Album albumDetails, Long artistId) {
         if (artistId != null) {
             Artist artist = artistService.getArtistById(artistId);
             album.setArtist(artist);
+            artistIds.add(artistId);
         }
+        artistService.touchDiscography(artistIds);
+        searchIndex.put(CatalogSearchIndex.Kind.ALBUMS, id, album.getTitle());
         
         return albumRepository.save(album);
     }
     
     @Transactional
     public void deleteAlbum(Long id) {
+        catalogVersionService.bump(CatalogVersion.Kind.ALBUMS, CatalogVersion.Kind.TRACKS);
         Album album = getAlbumById(id);
+        artistService.touchDiscography(List.of(album.getArtist().getId()));
+        searchIndex.remove(CatalogSearchIndex.Kind.TRACKS, album.getTracks().stream().map(Track::getId).toList());
         albumRepository.delete(album);
+        searchIndex.remove(CatalogSearchIndex.Kind.ALBUMS, List.of(id));
     }
     
     public List<Album> getAlbumsByArtist(Long artistId) {
@@ -64,6 +106,18 @@ public List<Album> getAlbumsByArtist(Long artistId) {
     }
     
     public List<Album> searchAlbumsByTitle(String title) {
-        return albumRepository.findByTitleContainingIgnoreCase(title);
+        long[] ids = searchIndex.search(CatalogSearchIndex.Kind.ALBUMS, title);
+        if (ids == null || ids.length == 0) {
+            return albumRepository.findByTitleContainingIgnoreCase(title);
+        }
+        return CatalogSearchIndex.fetch(ids, albumRepository::findAllById, Album::getId);
+    }
+    
+    public List<Album> fuzzySearchAlbumsByTitle(String title) {
+        long[] ids = searchIndex.searchFuzzy(CatalogSearchIndex.Kind.ALBUMS, title);
+        if (ids == null) {
+            return searchAlbumsByTitle(title);
+        }
+        return CatalogSearchIndex.fetch(ids, albumRepository::findAllById, Album::getId);
     }
 }
@@ -1,32 +1,79 @@
 package ru.music.streaming.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.dto.CursorPageResponse;
+import ru.music.streaming.dto.DiscographyAlbumResponse;
+import ru.music.streaming.dto.DiscographyResponse;
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.model.Album;
 import ru.music.streaming.model.Artist;
+import ru.music.streaming.model.CatalogVersion;
+import ru.music.streaming.model.Track;
+import ru.music.streaming.repository.ArtistDiscographyHead;
 import ru.music.streaming.repository.ArtistRepository;
+import ru.music.streaming.repository.DiscographyRow;
+import ru.music.streaming.repository.TrackRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class ArtistService {
     
     private final ArtistRepository artistRepository;
+    private final TrackRepository trackRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogSearchIndex searchIndex;
+    private final Map<Long, CachedDiscography> discographyCache;
     
     @Autowired
-    public ArtistService(ArtistRepository artistRepository) {
+    public ArtistService(ArtistRepository artistRepository,
+                         TrackRepository trackRepository,
+                         CatalogVersionService catalogVersionService,
+                         CatalogSearchIndex searchIndex,
+                         @Value("${catalog.discography-cache.max-entries:1000}") int discographyCacheSize) {
         this.artistRepository = artistRepository;
+        this.trackRepository = trackRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.searchIndex = searchIndex;
+        this.discographyCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedDiscography> eldest) {
+                return size() > discographyCacheSize;
+            }
+        });
     }
     
     @Transactional
     public Artist createArtist(Artist artist) {
-        return artistRepository.save(artist);
+        catalogVersionService.bump(CatalogVersion.Kind.ARTISTS);
+        Artist saved = artistRepository.save(artist);
+        searchIndex.put(CatalogSearchIndex.Kind.ARTISTS, saved.getId(), saved.getName());
+        return saved;
     }
     
     public List<Artist> getAllArtists() {
         return artistRepository.findAll();
     }
     
+    public CursorPageResponse<Artist> getArtistsPage(Long after, int limit) {
+        PageLimits.check(limit);
+        List<Artist> rows = artistRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, Artist::getId);
+    }
+    
     public Artist getArtistById(Long id) {
         return artistRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Артист с ID " + id + " не найден"));
@@ -34,26 +81,114 @@ public Artist getArtistById(Long id) {
     
     @Transactional
     public Artist updateArtist(Long id, Artist artistDetails) {
+        catalogVersionService.bump(CatalogVersion.Kind.ARTISTS);
         Artist artist = getArtistById(id);
         
+        if (!Objects.equals(artist.getName(), artistDetails.getName())) {
+            trackRepository.touchByArtistId(id, LocalDateTime.now());
+            touchDiscography(List.of(id));
+        }
         artist.setName(artistDetails.getName());
         artist.setBio(artistDetails.getBio());
         artist.setCountry(artistDetails.getCountry());
+        searchIndex.put(CatalogSearchIndex.Kind.ARTISTS, id, artist.getName());
         
         return artistRepository.save(artist);
     }
     
     @Transactional
     public void deleteArtist(Long id) {
+        catalogVersionService.bump(CatalogVersion.Kind.ARTISTS, CatalogVersion.Kind.ALBUMS, CatalogVersion.Kind.TRACKS);
         Artist artist = getArtistById(id);
+        searchIndex.remove(CatalogSearchIndex.Kind.TRACKS, artist.getTracks().stream().map(Track::getId).toList());
+        searchIndex.remove(CatalogSearchIndex.Kind.ALBUMS, artist.getAlbums().stream().map(Album::getId).toList());
         artistRepository.delete(artist);
+        searchIndex.remove(CatalogSearchIndex.Kind.ARTISTS, List.of(id));
+    }
+    
+    public DiscographyResponse getDiscography(Long artistId) {
+        ArtistDiscographyHead head = artistRepository.findDiscographyHeadById(artistId)
+                .orElseThrow(() -> new RuntimeException("Артист с ID " + artistId + " не найден"));
+        CachedDiscography cached = discographyCache.get(artistId);
+        if (cached != null && cached.version().equals(head.getDiscographyVersion())) {
+            return cached.discography();
+        }
+        DiscographyResponse discography = buildDiscography(head, artistRepository.findDiscographyRows(artistId));
+        discographyCache.put(artistId, new CachedDiscography(head.getDiscographyVersion(), discography));
+        return discography;
+    }
+    
+    public void touchDiscography(Collection<Long> artistIds) {
+        Set<Long> ids = new HashSet<>(artistIds);
+        ids.remove(null);
+        if (!ids.isEmpty()) {
+            artistRepository.bumpDiscographyVersion(ids);
+        }
     }
     
     public List<Artist> searchArtistsByName(String name) {
-        return artistRepository.findByNameContainingIgnoreCase(name);
+        long[] ids = searchIndex.search(CatalogSearchIndex.Kind.ARTISTS, name);
+        if (ids == null || ids.length == 0) {
+            return artistRepository.findByNameContainingIgnoreCase(name);
+        }
+        return CatalogSearchIndex.fetch(ids, artistRepository::findAllById, Artist::getId);
+    }
+    
+    public List<Artist> fuzzySearchArtistsByName(String name) {
+        long[] ids = searchIndex.searchFuzzy(CatalogSearchIndex.Kind.ARTISTS, name);
+        if (ids == null) {
+            return searchArtistsByName(name);
+        }
+        return CatalogSearchIndex.fetch(ids, artistRepository::findAllById, Artist::getId);
     }
     
     public List<Artist> getArtistsByCountry(String country) {
         return artistRepository.findByCountry(country);
     }
+    
+    private DiscographyResponse buildDiscography(ArtistDiscographyHead head, List<DiscographyRow> rows) {
+        List<DiscographyAlbumResponse> albums = new ArrayList<>();
+        List<SparseTrackResponse> singles = new ArrayList<>();
+        DiscographyRow albumRow = null;
+        List<SparseTrackResponse> albumTracks = new ArrayList<>();
+        int trackCount = 0;
+        long totalDurationSeconds = 0L;
+        for (DiscographyRow row : rows) {
+            if (row.albumId() != null && (albumRow == null || !albumRow.albumId().equals(row.albumId()))) {
+                if (albumRow != null) {
+                    albums.add(toAlbumResponse(albumRow, albumTracks));
+                }
+                albumRow = row;
+                albumTracks = new ArrayList<>();
+            }
+            if (row.trackId() == null) {
+                continue;
+            }
+            SparseTrackResponse track = new SparseTrackResponse(row.trackId(), row.trackTitle(), null, null,
+                    row.durationSeconds(), row.genre(), row.audioUrl());
+            trackCount++;
+            totalDurationSeconds += row.durationSeconds() != null ? row.durationSeconds() : 0;
+            if (row.albumId() != null) {
+                albumTracks.add(track);
+            } else {
+                singles.add(track);
+            }
+        }
+        if (albumRow != null) {
+            albums.add(toAlbumResponse(albumRow, albumTracks));
+        }
+        return new DiscographyResponse(head.getId(), head.getName(), trackCount, totalDurationSeconds, albums, singles);
+    }
+    
+    private static DiscographyAlbumResponse toAlbumResponse(DiscographyRow albumRow, List<SparseTrackResponse> tracks) {
+        long totalDurationSeconds = 0L;
+        for (SparseTrackResponse track : tracks) {
+            totalDurationSeconds += track.getDurationSeconds() != null ? track.getDurationSeconds() : 0;
+        }
+        return new DiscographyAlbumResponse(albumRow.albumId(), albumRow.albumTitle(), albumRow.releaseDate(),
+                albumRow.coverUrl(), tracks.size(), totalDurationSeconds, tracks);
+    }
+    
+    private record CachedDiscography(Long version, DiscographyResponse discography) {
+    }
 }
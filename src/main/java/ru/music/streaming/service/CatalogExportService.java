@@ -0,0 +1,52 @@
+package ru.music.streaming.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.dto.TrackExportRow;
+import ru.music.streaming.repository.TrackRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class CatalogExportService {
+    
+    private static final int FLUSH_EVERY = 1000;
+    
+    private final TrackRepository trackRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public CatalogExportService(TrackRepository trackRepository, ObjectMapper objectMapper) {
+        this.trackRepository = trackRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportTracks(LocalDateTime updatedSince, OutputStream outputStream) {
+        OutputStream out = new BufferedOutputStream(outputStream);
+        try (Stream<TrackExportRow> rows = updatedSince != null
+                ? trackRepository.streamExportRowsUpdatedSince(updatedSince)
+                : trackRepository.streamExportRows()) {
+            int written = 0;
+            Iterator<TrackExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка при экспорте каталога", e);
+        }
+    }
+}
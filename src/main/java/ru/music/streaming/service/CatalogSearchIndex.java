@@ -0,0 +1,200 @@
+package ru.music.streaming.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.music.streaming.repository.AlbumRepository;
+import ru.music.streaming.repository.ArtistRepository;
+import ru.music.streaming.repository.PlaylistRepository;
+import ru.music.streaming.repository.SearchEntry;
+import ru.music.streaming.repository.TrackRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class CatalogSearchIndex {
+    
+    private static final int LOAD_CHUNK = 1000;
+    
+    public enum Kind {
+        TRACKS,
+        ALBUMS,
+        ARTISTS,
+        PLAYLISTS
+    }
+    
+    private static final Set<Kind> FUZZY_KINDS = EnumSet.of(Kind.TRACKS, Kind.ALBUMS, Kind.ARTISTS);
+    
+    private final TrackRepository trackRepository;
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+    private final PlaylistRepository playlistRepository;
+    private final double fuzzyThreshold;
+    private final int fuzzyMaxResults;
+    private final Object monitor = new Object();
+    private volatile Indexes indexes;
+    private List<Consumer<Indexes>> pending;
+    
+    @Autowired
+    public CatalogSearchIndex(TrackRepository trackRepository,
+                              AlbumRepository albumRepository,
+                              ArtistRepository artistRepository,
+                              PlaylistRepository playlistRepository,
+                              @Value("${catalog.search.fuzzy-threshold:0.3}") double fuzzyThreshold,
+                              @Value("${catalog.search.fuzzy-max-results:50}") int fuzzyMaxResults) {
+        if (!(fuzzyThreshold > 0 && fuzzyThreshold <= 1)) {
+            throw new RuntimeException("Порог нечёткого поиска должен быть в диапазоне (0, 1]");
+        }
+        this.trackRepository = trackRepository;
+        this.albumRepository = albumRepository;
+        this.artistRepository = artistRepository;
+        this.playlistRepository = playlistRepository;
+        this.fuzzyThreshold = fuzzyThreshold;
+        this.fuzzyMaxResults = fuzzyMaxResults;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.search.rebuild-interval-ms:3600000}",
+            initialDelayString = "${catalog.search.rebuild-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (monitor) {
+            if (pending != null) {
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        Indexes fresh = new Indexes(new EnumMap<>(Kind.class), new EnumMap<>(Kind.class));
+        for (Kind kind : Kind.values()) {
+            fresh.tokens().put(kind, new TokenIndex());
+        }
+        for (Kind kind : FUZZY_KINDS) {
+            fresh.trigrams().put(kind, new TrigramIndex());
+        }
+        try {
+            load(fresh, Kind.TRACKS, trackRepository.streamSearchEntries());
+            load(fresh, Kind.ALBUMS, albumRepository.streamSearchEntries());
+            load(fresh, Kind.ARTISTS, artistRepository.streamSearchEntries());
+            load(fresh, Kind.PLAYLISTS, playlistRepository.streamSearchEntries());
+        } catch (RuntimeException e) {
+            synchronized (monitor) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (monitor) {
+            for (Consumer<Indexes> update : pending) {
+                update.accept(fresh);
+            }
+            pending = null;
+            indexes = fresh;
+        }
+    }
+    
+    public long[] search(Kind kind, String query) {
+        Indexes current = indexes;
+        return current != null ? current.tokens().get(kind).search(query) : null;
+    }
+    
+    public long[] searchFuzzy(Kind kind, String query) {
+        Indexes current = indexes;
+        TrigramIndex index = current != null ? current.trigrams().get(kind) : null;
+        return index != null ? index.search(query, fuzzyThreshold, fuzzyMaxResults) : null;
+    }
+    
+    public void put(Kind kind, Long id, String text) {
+        apply(current -> current.put(kind, id, text));
+    }
+    
+    public void remove(Kind kind, Collection<Long> ids) {
+        List<Long> removed = new ArrayList<>(ids);
+        apply(current -> removed.forEach(id -> current.remove(kind, id)));
+    }
+    
+    public static <T> List<T> fetch(long[] ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        Map<Long, T> loaded = new HashMap<>();
+        for (int from = 0; from < ids.length; from += LOAD_CHUNK) {
+            List<Long> chunk = new ArrayList<>(Math.min(LOAD_CHUNK, ids.length - from));
+            for (int i = from; i < ids.length && i < from + LOAD_CHUNK; i++) {
+                chunk.add(ids[i]);
+            }
+            for (T row : loader.apply(chunk)) {
+                loaded.put(idOf.apply(row), row);
+            }
+        }
+        List<T> result = new ArrayList<>(loaded.size());
+        for (long id : ids) {
+            T row = loaded.get(id);
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+    
+    private void apply(Consumer<Indexes> update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(update);
+                }
+            });
+        } else {
+            applyNow(update);
+        }
+    }
+    
+    private void applyNow(Consumer<Indexes> update) {
+        synchronized (monitor) {
+            if (pending != null) {
+                pending.add(update);
+            }
+            Indexes current = indexes;
+            if (current != null) {
+                update.accept(current);
+            }
+        }
+    }
+    
+    private static void load(Indexes indexes, Kind kind, Stream<SearchEntry> entries) {
+        try (entries) {
+            entries.forEach(entry -> indexes.put(kind, entry.getId(), entry.getText()));
+        }
+    }
+    
+    private record Indexes(Map<Kind, TokenIndex> tokens, Map<Kind, TrigramIndex> trigrams) {
+        
+        private void put(Kind kind, long id, String text) {
+            tokens.get(kind).put(id, text);
+            TrigramIndex trigramIndex = trigrams.get(kind);
+            if (trigramIndex != null) {
+                trigramIndex.put(id, text);
+            }
+        }
+        
+        private void remove(Kind kind, long id) {
+            tokens.get(kind).remove(id);
+            TrigramIndex trigramIndex = trigrams.get(kind);
+            if (trigramIndex != null) {
+                trigramIndex.remove(id);
+            }
+        }
+    }
+}
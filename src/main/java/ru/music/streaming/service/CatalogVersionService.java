@@ -0,0 +1,46 @@
+package ru.music.streaming.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.model.CatalogVersion;
+import ru.music.streaming.repository.CatalogVersionRepository;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+public class CatalogVersionService {
+    
+    private final CatalogVersionRepository catalogVersionRepository;
+    
+    @Autowired
+    public CatalogVersionService(CatalogVersionRepository catalogVersionRepository) {
+        this.catalogVersionRepository = catalogVersionRepository;
+    }
+    
+    @Transactional
+    public void bump(CatalogVersion.Kind... kinds) {
+        for (CatalogVersion.Kind kind : kinds) {
+            catalogVersionRepository.bump(kind.name());
+        }
+    }
+    
+    public Map<CatalogVersion.Kind, Long> getVersions() {
+        Map<CatalogVersion.Kind, Long> versions = new EnumMap<>(CatalogVersion.Kind.class);
+        for (CatalogVersion.Kind kind : CatalogVersion.Kind.values()) {
+            versions.put(kind, 0L);
+        }
+        for (CatalogVersion version : catalogVersionRepository.findAll()) {
+            versions.put(version.getKind(), version.getVersion());
+        }
+        return versions;
+    }
+    
+    public String getCatalogTag() {
+        Map<CatalogVersion.Kind, Long> versions = getVersions();
+        return "\"catalog-" + versions.get(CatalogVersion.Kind.ARTISTS)
+                + "-" + versions.get(CatalogVersion.Kind.ALBUMS)
+                + "-" + versions.get(CatalogVersion.Kind.TRACKS) + "\"";
+    }
+}
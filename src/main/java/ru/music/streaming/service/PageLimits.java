@@ -0,0 +1,15 @@
+package ru.music.streaming.service;
+
+public final class PageLimits {
+    
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    private PageLimits() {
+    }
+    
+    public static void check(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+    }
+}
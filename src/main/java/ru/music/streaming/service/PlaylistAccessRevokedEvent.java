@@ -0,0 +1,14 @@
+package ru.music.streaming.service;
+
+public class PlaylistAccessRevokedEvent {
+    
+    private final Long playlistId;
+    
+    public PlaylistAccessRevokedEvent(Long playlistId) {
+        this.playlistId = playlistId;
+    }
+    
+    public Long getPlaylistId() {
+        return playlistId;
+    }
+}
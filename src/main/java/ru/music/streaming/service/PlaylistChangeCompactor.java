@@ -0,0 +1,30 @@
+package ru.music.streaming.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.repository.PlaylistChangeRepository;
+
+import java.time.LocalDateTime;
+
+@Component
+public class PlaylistChangeCompactor {
+    
+    private final PlaylistChangeRepository playlistChangeRepository;
+    private final int retentionDays;
+    
+    @Autowired
+    public PlaylistChangeCompactor(PlaylistChangeRepository playlistChangeRepository,
+                                   @Value("${playlist.changes.retention-days:30}") int retentionDays) {
+        this.playlistChangeRepository = playlistChangeRepository;
+        this.retentionDays = retentionDays;
+    }
+    
+    @Scheduled(fixedDelayString = "${playlist.changes.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compact() {
+        playlistChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.music.streaming.service;
+
+import ru.music.streaming.model.PlaylistChange;
+
+import java.util.List;
+
+public class PlaylistChangedEvent {
+    
+    private final Long playlistId;
+    private final Long revision;
+    private final List<PlaylistChange> changes;
+    private final boolean deleted;
+    
+    public PlaylistChangedEvent(Long playlistId, Long revision, List<PlaylistChange> changes, boolean deleted) {
+        this.playlistId = playlistId;
+        this.revision = revision;
+        this.changes = changes;
+        this.deleted = deleted;
+    }
+    
+    public Long getPlaylistId() {
+        return playlistId;
+    }
+    
+    public Long getRevision() {
+        return revision;
+    }
+    
+    public List<PlaylistChange> getChanges() {
+        return changes;
+    }
+    
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,201 @@
+package ru.music.streaming.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.music.streaming.dto.PlaylistChangesResponse;
+import ru.music.streaming.model.PlaylistChange;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class PlaylistEventBroadcaster {
+    
+    private static final int MAX_EVENT_CHANGES = 50;
+    
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    
+    @Autowired
+    public PlaylistEventBroadcaster(@Value("${playlist.events.queue-capacity:64}") int queueCapacity,
+                                    @Value("${playlist.events.timeout-ms:1800000}") long timeoutMs,
+                                    @Value("${playlist.events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+    
+    public SseEmitter subscribe(Long playlistId, Long revision, boolean privileged) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(playlistId, emitter, queueCapacity, privileged);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.computeIfAbsent(playlistId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        offer(subscriber, SseEmitter.event().name("subscribed").id(String.valueOf(revision)).data(revision));
+        return emitter;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPlaylistChanged(PlaylistChangedEvent event) {
+        Set<Subscriber> targets = event.isDeleted()
+                ? subscribers.remove(event.getPlaylistId())
+                : subscribers.get(event.getPlaylistId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        if (event.isDeleted()) {
+            for (Subscriber subscriber : targets) {
+                offer(subscriber, SseEmitter.event().name("deleted").data(event.getPlaylistId()));
+                subscriber.closeAfterDrain();
+            }
+            return;
+        }
+        List<PlaylistChange> changes = event.getChanges();
+        boolean resync = changes.size() > MAX_EVENT_CHANGES
+                || changes.stream().anyMatch(change -> change.getType() == PlaylistChange.Type.RESYNC);
+        PlaylistChangesResponse payload = new PlaylistChangesResponse(event.getRevision(), resync,
+                resync ? List.of() : changes);
+        for (Subscriber subscriber : targets) {
+            offer(subscriber, SseEmitter.event()
+                    .name("changes")
+                    .id(String.valueOf(event.getRevision()))
+                    .data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPlaylistAccessRevoked(PlaylistAccessRevokedEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.getPlaylistId());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            if (!subscriber.privileged) {
+                close(subscriber);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${playlist.events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                long sendingSince = subscriber.sendingSince;
+                if (sendingSince != 0 && now - sendingSince > sendTimeoutMs) {
+                    close(subscriber);
+                } else {
+                    offer(subscriber, SseEmitter.event().comment("ping"));
+                }
+            }
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                subscriber.emitter.complete();
+            }
+        }
+        subscribers.clear();
+    }
+    
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            close(subscriber);
+            return;
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+            if (subscriber.closing.get()) {
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.scheduled.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+    }
+    
+    private void close(Subscriber subscriber) {
+        unsubscribe(subscriber);
+        subscriber.queue.clear();
+        dispatcher.execute(subscriber.emitter::complete);
+    }
+    
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.playlistId, (id, targets) -> {
+            targets.remove(subscriber);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+    
+    private static final class Subscriber {
+        
+        private final Long playlistId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closing = new AtomicBoolean();
+        private final boolean privileged;
+        private volatile long sendingSince;
+        
+        private Subscriber(Long playlistId, SseEmitter emitter, int queueCapacity, boolean privileged) {
+            this.playlistId = playlistId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.privileged = privileged;
+        }
+        
+        private void closeAfterDrain() {
+            closing.set(true);
+            if (scheduled.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -3,34 +3,73 @@
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.music.streaming.dto.CursorPageResponse;
 import ru.music.streaming.dto.DailyMixRequest;
+import ru.music.streaming.dto.PlaylistBulkAddResponse;
+import ru.music.streaming.dto.PlaylistChangesResponse;
+import ru.music.streaming.dto.PlaylistCloneResponse;
+import ru.music.streaming.dto.PlaylistEditOperation;
+import ru.music.streaming.dto.PlaylistSummaryResponse;
 import ru.music.streaming.dto.PlaylistTrackResponse;
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackField;
+import ru.music.streaming.exception.PreconditionFailedException;
+import ru.music.streaming.model.CatalogVersion;
 import ru.music.streaming.model.Playlist;
+import ru.music.streaming.model.PlaylistChange;
 import ru.music.streaming.model.PlaylistTrack;
 import ru.music.streaming.model.Track;
 import ru.music.streaming.model.User;
+import ru.music.streaming.repository.PlaylistAccess;
+import ru.music.streaming.repository.PlaylistChangeRepository;
 import ru.music.streaming.repository.PlaylistRepository;
 import ru.music.streaming.repository.PlaylistTrackRepository;
+import ru.music.streaming.repository.PlaylistTrackSlot;
+import ru.music.streaming.repository.PlaylistTrackViewRow;
+import ru.music.streaming.repository.PlaylistTracksSource;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
 public class PlaylistService {
     
+    private static final long NO_EXCLUDED_ROW = 0L;
+    private static final int MAX_CHANGES = 1000;
+    
+    public static final Set<TrackField> VIEW_FIELDS = EnumSet.of(
+            TrackField.ID, TrackField.TITLE, TrackField.ARTIST, TrackField.ALBUM,
+            TrackField.DURATION_SECONDS, TrackField.GENRE);
+    
     private final PlaylistRepository playlistRepository;
     private final PlaylistTrackRepository playlistTrackRepository;
+    private final PlaylistChangeRepository playlistChangeRepository;
     private final UserService userService;
     private final TrackService trackService;
+    private final PlaylistEventBroadcaster eventBroadcaster;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<String, List<PlaylistTrackResponse>> viewFlight;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -38,23 +77,64 @@ public class PlaylistService {
     @Autowired
     public PlaylistService(PlaylistRepository playlistRepository, 
                           PlaylistTrackRepository playlistTrackRepository,
+                          PlaylistChangeRepository playlistChangeRepository,
                           UserService userService, 
-                          TrackService trackService) {
+                          TrackService trackService,
+                          PlaylistEventBroadcaster eventBroadcaster,
+                          CatalogVersionService catalogVersionService,
+                          CatalogSearchIndex searchIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          SingleFlightRegistry singleFlightRegistry) {
         this.playlistRepository = playlistRepository;
         this.playlistTrackRepository = playlistTrackRepository;
+        this.playlistChangeRepository = playlistChangeRepository;
         this.userService = userService;
         this.trackService = trackService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.catalogVersionService = catalogVersionService;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.viewFlight = singleFlightRegistry.get("playlist-view");
     }
     
     @Transactional
     public Playlist createPlaylist(Playlist playlist, Long userId) {
         User user = userService.getUserById(userId);
         playlist.setUser(user);
-        return playlistRepository.save(playlist);
+        playlist.setContentDigest(0L);
+        playlist.setTrackCount(0L);
+        playlist.setTotalDurationSeconds(0L);
+        Playlist saved = playlistRepository.save(playlist);
+        searchIndex.put(CatalogSearchIndex.Kind.PLAYLISTS, saved.getId(), saved.getName());
+        if (Boolean.TRUE.equals(saved.getIsPublic())) {
+            catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
+        }
+        return saved;
+    }
+    
+    public List<PlaylistSummaryResponse> getAllPlaylistSummaries() {
+        return playlistRepository.findAllSummaries();
+    }
+    
+    public CursorPageResponse<PlaylistSummaryResponse> getPlaylistSummariesPage(Long after, int limit) {
+        PageLimits.check(limit);
+        List<PlaylistSummaryResponse> rows = playlistRepository.findSummariesAfter(
+                after != null ? after : 0L, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, PlaylistSummaryResponse::getId);
     }
     
-    public List<Playlist> getAllPlaylists() {
-        return playlistRepository.findAll();
+    public CursorPageResponse<PlaylistSummaryResponse> getPublicPlaylistSummariesPage(Long after, int limit) {
+        PageLimits.check(limit);
+        List<PlaylistSummaryResponse> rows = playlistRepository.findPublicSummariesAfter(
+                after != null ? after : 0L, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, PlaylistSummaryResponse::getId);
+    }
+    
+    public CursorPageResponse<PlaylistSummaryResponse> getVisiblePlaylistSummariesPage(Long after, int limit, Long userId) {
+        PageLimits.check(limit);
+        List<PlaylistSummaryResponse> rows = playlistRepository.findVisibleSummariesAfter(
+                after != null ? after : 0L, userId, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, PlaylistSummaryResponse::getId);
     }
     
     public Playlist getPlaylistById(Long id) {
@@ -67,125 +147,317 @@ public Playlist getPlaylistByIdWithTracks(Long id) {
                 .orElseThrow(() -> new RuntimeException("Плейлист с ID " + id + " не найден"));
     }
     
+    public PlaylistAccess getPlaylistAccess(Long id) {
+        return playlistRepository.findAccessById(id)
+                .orElseThrow(() -> new RuntimeException("Плейлист с ID " + id + " не найден"));
+    }
+    
+    public Long getPlaylistVersion(Long id) {
+        return playlistRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Плейлист с ID " + id + " не найден"));
+    }
+    
     @Transactional
-    public Playlist updatePlaylist(Long id, Playlist playlistDetails) {
+    public Playlist updatePlaylist(Long id, Playlist playlistDetails, Long expectedVersion) {
+        claimPlaylistVersion(id, expectedVersion);
         Playlist playlist = getPlaylistById(id);
+        boolean madePrivate = Boolean.TRUE.equals(playlist.getIsPublic()) && !Boolean.TRUE.equals(playlistDetails.getIsPublic());
+        boolean madePublic = !Boolean.TRUE.equals(playlist.getIsPublic()) && Boolean.TRUE.equals(playlistDetails.getIsPublic());
         
         playlist.setName(playlistDetails.getName());
         playlist.setDescription(playlistDetails.getDescription());
         playlist.setIsPublic(playlistDetails.getIsPublic());
+        searchIndex.put(CatalogSearchIndex.Kind.PLAYLISTS, id, playlist.getName());
         
+        recordChange(playlist, new PlaylistChange(PlaylistChange.Type.UPDATE, null, null));
+        if (madePrivate) {
+            eventPublisher.publishEvent(new PlaylistAccessRevokedEvent(id));
+        } else if (madePublic) {
+            catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
+        }
         return playlistRepository.save(playlist);
     }
     
     @Transactional
-    public void deletePlaylist(Long id) {
+    public void deletePlaylist(Long id, Long expectedVersion) {
+        claimPlaylistVersion(id, expectedVersion);
         Playlist playlist = getPlaylistById(id);
-        playlistRepository.delete(playlist);
+        if (playlist.getTracksSourceId() == null) {
+            handOverSharedCopies(playlist.getId(), true);
+        }
+        playlistChangeRepository.deleteByPlaylistId(id);
+        playlistRepository.deleteById(id);
+        searchIndex.remove(CatalogSearchIndex.Kind.PLAYLISTS, List.of(id));
+        eventPublisher.publishEvent(new PlaylistChangedEvent(id, null, List.of(), true));
+    }
+    
+    public List<PlaylistSummaryResponse> getPlaylistSummariesByUser(Long userId, boolean publicOnly) {
+        return publicOnly
+                ? playlistRepository.findPublicSummariesByUserId(userId)
+                : playlistRepository.findSummariesByUserId(userId);
     }
     
-    public List<Playlist> getPlaylistsByUser(Long userId) {
-        return playlistRepository.findByUserId(userId);
+    public String getPublicPlaylistsTag() {
+        Map<CatalogVersion.Kind, Long> versions = catalogVersionService.getVersions();
+        return "\"public-" + versions.get(CatalogVersion.Kind.PUBLIC_PLAYLISTS)
+                + "-" + versions.get(CatalogVersion.Kind.TRACKS) + "\"";
     }
     
-    public List<Playlist> getPublicPlaylists() {
-        return playlistRepository.findByIsPublic(true);
+    public List<PlaylistSummaryResponse> getPublicPlaylistSummaries() {
+        return playlistRepository.findPublicSummaries();
     }
     
-    public List<Playlist> searchPlaylistsByName(String name) {
-        return playlistRepository.findByNameContainingIgnoreCase(name);
+    public List<PlaylistSummaryResponse> searchPlaylistSummaries(String name) {
+        long[] ids = searchIndex.search(CatalogSearchIndex.Kind.PLAYLISTS, name);
+        if (ids == null || ids.length == 0) {
+            return playlistRepository.searchSummaries(name);
+        }
+        return CatalogSearchIndex.fetch(ids, playlistRepository::findSummariesByIdIn, PlaylistSummaryResponse::getId);
+    }
+    
+    public List<PlaylistSummaryResponse> searchPublicPlaylistSummaries(String name) {
+        long[] ids = searchIndex.search(CatalogSearchIndex.Kind.PLAYLISTS, name);
+        if (ids == null || ids.length == 0) {
+            return playlistRepository.searchPublicSummaries(name);
+        }
+        return CatalogSearchIndex.fetch(ids, playlistRepository::findPublicSummariesByIdIn, PlaylistSummaryResponse::getId);
+    }
+    
+    public List<PlaylistSummaryResponse> searchVisiblePlaylistSummaries(String name, Long userId) {
+        long[] ids = searchIndex.search(CatalogSearchIndex.Kind.PLAYLISTS, name);
+        if (ids == null || ids.length == 0) {
+            return playlistRepository.searchVisibleSummaries(name, userId);
+        }
+        return CatalogSearchIndex.fetch(ids, chunk -> playlistRepository.findVisibleSummariesByIdIn(chunk, userId),
+                PlaylistSummaryResponse::getId);
     }
     
     @Transactional
-    public void addTrackToPlaylist(Long playlistId, Long trackId, Integer position) {
+    public void addTrackToPlaylist(Long playlistId, Long trackId, Integer position, Long expectedVersion) {
+        Playlist playlist = getPlaylistForTrackWrite(playlistId, expectedVersion);
         try {
-            Playlist playlist = getPlaylistById(playlistId);
             Track track = trackService.getTrackById(trackId);
             
             if (playlistTrackRepository.existsByPlaylistIdAndTrackId(playlistId, trackId)) {
                 throw new RuntimeException("Трек уже существует в плейлисте");
             }
             
-            if (position == null || position < 0) {
-                Integer maxPosition = playlistTrackRepository.findMaxPositionByPlaylistId(playlistId);
-                position = (maxPosition == null) ? 0 : maxPosition + 1;
-            }
+            Integer sortKey = (position == null || position < 0)
+                    ? appendBase(playlistId, 1) + PlaylistTrack.POSITION_STEP
+                    : allocatePosition(playlistId, NO_EXCLUDED_ROW, position);
             
-            if (playlistTrackRepository.existsByPlaylistIdAndPosition(playlistId, position)) {
-                normalizePositions(playlistId);
-                Integer maxPosition = playlistTrackRepository.findMaxPositionByPlaylistId(playlistId);
-                position = (maxPosition == null) ? 0 : maxPosition + 1;
-            }
-            
-            PlaylistTrack playlistTrack = new PlaylistTrack(playlist, track, position);
+            PlaylistTrack playlistTrack = new PlaylistTrack(playlist, track, sortKey);
             playlistTrackRepository.save(playlistTrack);
+            adjustContentDigest(playlistId, digestOf(sortKey, trackId));
+            adjustTrackTotals(playlistId, 1, track.getDurationSeconds() != null ? track.getDurationSeconds() : 0L);
+            recordChange(playlist, new PlaylistChange(PlaylistChange.Type.ADD, trackId,
+                    (position == null || position < 0) ? null : position));
         } catch (Exception e) {
             throw new RuntimeException("Ошибка при добавлении трека в плейлист: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void removeTrackFromPlaylist(Long playlistId, Integer position) {
-        PlaylistTrack playlistTrack = playlistTrackRepository
-                .findByPlaylistIdAndPosition(playlistId, position)
+    public PlaylistBulkAddResponse addTracksToPlaylist(Long playlistId, List<Long> trackIds, Long expectedVersion) {
+        PlaylistAccess access = getPlaylistAccess(playlistId);
+        long currentVersion = access.getVersion() != null ? access.getVersion() : 0L;
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new PreconditionFailedException("Плейлист был изменён другим запросом, обновите данные и повторите попытку");
+        }
+        Set<Long> knownTrackIds = trackService.findExistingTrackIds(new LinkedHashSet<>(trackIds));
+        PlaylistBulkAddResponse result = classifyTracksToAdd(access.getTracksPlaylistId(), trackIds, knownTrackIds);
+        if (result.getAddedTrackIds().isEmpty()) {
+            return result;
+        }
+        
+        Playlist playlist = getPlaylistForTrackWrite(playlistId, expectedVersion);
+        if (expectedVersion == null) {
+            result = classifyTracksToAdd(playlistId, trackIds, knownTrackIds);
+        }
+        List<Long> added = result.getAddedTrackIds();
+        if (!added.isEmpty()) {
+            int base = appendBase(playlistId, added.size());
+            List<Integer> positions = new ArrayList<>(added.size());
+            long digest = 0L;
+            for (int i = 0; i < added.size(); i++) {
+                positions.add(base + (i + 1) * PlaylistTrack.POSITION_STEP);
+                digest += digestOf(positions.get(i), added.get(i));
+            }
+            try {
+                playlistTrackRepository.batchInsert(playlistId, added, positions);
+            } catch (Exception e) {
+                throw new RuntimeException("Ошибка при добавлении треков в плейлист: " + e.getMessage(), e);
+            }
+            adjustContentDigest(playlistId, digest);
+            adjustTrackTotals(playlistId, added.size(), trackService.getTotalDuration(added));
+            List<PlaylistChange> changes = new ArrayList<>(added.size());
+            for (Long trackId : added) {
+                changes.add(new PlaylistChange(PlaylistChange.Type.ADD, trackId, null));
+            }
+            recordChanges(playlist, changes);
+        }
+        return result;
+    }
+    
+    private PlaylistBulkAddResponse classifyTracksToAdd(Long tracksPlaylistId, List<Long> trackIds, Set<Long> knownTrackIds) {
+        Set<Long> presentTrackIds = new HashSet<>(
+                playlistTrackRepository.findTrackIdsByPlaylistIdAndTrackIdIn(tracksPlaylistId, new LinkedHashSet<>(trackIds)));
+        List<Long> added = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Long trackId : trackIds) {
+            if (!seen.add(trackId) || presentTrackIds.contains(trackId)) {
+                skipped.add(trackId);
+            } else if (!knownTrackIds.contains(trackId)) {
+                missing.add(trackId);
+            } else {
+                added.add(trackId);
+            }
+        }
+        return new PlaylistBulkAddResponse(added, skipped, missing);
+    }
+    
+    @Transactional
+    public void removeTrackFromPlaylist(Long playlistId, Integer position, Long expectedVersion) {
+        if (position == null || position < 0) {
+            throw new RuntimeException("Позиция трека должна быть неотрицательным числом");
+        }
+        Playlist playlist = getPlaylistForTrackWrite(playlistId, expectedVersion);
+        PlaylistTrackSlot slot = playlistTrackRepository.findSlotAtOffset(playlistId, position)
                 .orElseThrow(() -> new RuntimeException("Трек на позиции " + position + " не найден"));
         
-        playlistTrackRepository.delete(playlistTrack);
-        normalizePositions(playlistId);
+        playlistTrackRepository.deleteById(slot.getId());
+        adjustContentDigest(playlistId, -digestOf(slot.getPosition(), slot.getTrackId()));
+        adjustTrackTotals(playlistId, -1, -trackService.getTotalDuration(List.of(slot.getTrackId())));
+        recordChange(playlist, new PlaylistChange(PlaylistChange.Type.REMOVE, null, position));
     }
     
     public List<PlaylistTrack> getPlaylistTracks(Long playlistId) {
-        return playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlistId);
+        return loadOrderedTracks(resolveTracksSource(playlistId));
     }
     
     @Transactional
-    public void moveTrackWithinPlaylist(Long playlistId, Long trackId, Integer newPosition) {
+    public void moveTrackWithinPlaylist(Long playlistId, Long trackId, Integer newPosition, Long expectedVersion) {
+        Playlist playlist = getPlaylistForTrackWrite(playlistId, expectedVersion);
         try {
             if (newPosition == null) {
                 throw new RuntimeException("Укажите новую позицию трека");
             }
-            Playlist playlist = getPlaylistById(playlistId);
-            List<PlaylistTrack> tracks = new ArrayList<>(playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlist.getId()));
-            if (tracks.isEmpty()) {
-                throw new RuntimeException("Плейлист пуст");
+            PlaylistTrackSlot target = playlistTrackRepository.findSlotByPlaylistIdAndTrackId(playlist.getId(), trackId)
+                    .orElseThrow(() -> new RuntimeException("Трек не найден в плейлисте"));
+            Neighbours neighbours = findNeighbours(playlistId, target.getId(), Math.max(0, newPosition));
+            Integer sortKey = neighbours.keyBetween();
+            if (sortKey != null) {
+                playlistTrackRepository.updatePosition(target.getId(), sortKey);
+                adjustContentDigest(playlistId,
+                        digestOf(sortKey, trackId) - digestOf(target.getPosition(), trackId));
+            } else {
+                Long digestDelta = shiftRangeAndMove(playlistId, target, neighbours);
+                if (digestDelta != null) {
+                    adjustContentDigest(playlistId, digestDelta);
+                } else {
+                    sortKey = allocatePosition(playlistId, target.getId(), Math.max(0, newPosition));
+                    Integer currentKey = playlistTrackRepository.findSlotById(target.getId())
+                            .map(PlaylistTrackSlot::getPosition)
+                            .orElseThrow(() -> new RuntimeException("Трек не найден в плейлисте"));
+                    playlistTrackRepository.updatePosition(target.getId(), sortKey);
+                    adjustContentDigest(playlistId, digestOf(sortKey, trackId) - digestOf(currentKey, trackId));
+                }
             }
-            PlaylistTrack target = null;
-            for (PlaylistTrack pt : tracks) {
-                Track track = pt.getTrack();
-                if (track != null && track.getId() != null && Objects.equals(track.getId(), trackId)) {
-                    target = pt;
-                    break;
+            recordChange(playlist, new PlaylistChange(PlaylistChange.Type.MOVE, trackId, Math.max(0, newPosition)));
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка при перемещении трека в плейлисте: " + e.getMessage(), e);
+        }
+    }
+    
+    @Transactional
+    public void applyPlaylistEdits(Long playlistId, List<PlaylistEditOperation> operations, Long expectedVersion) {
+        Playlist playlist = getPlaylistForTrackWrite(playlistId, expectedVersion);
+        try {
+            List<EditEntry> entries = new ArrayList<>();
+            for (PlaylistTrackSlot slot : playlistTrackRepository.findSlotsByPlaylistId(playlist.getId())) {
+                entries.add(new EditEntry(slot.getId(), slot.getTrackId(), slot.getPosition()));
+            }
+            Set<Long> requestedTrackIds = operations.stream()
+                    .filter(operation -> operation.getType() == PlaylistEditOperation.Type.ADD)
+                    .map(PlaylistEditOperation::getTrackId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Long> knownTrackIds = trackService.findExistingTrackIds(requestedTrackIds);
+            
+            List<Long> removedIds = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                applyEdit(entries, operations.get(i), i + 1, knownTrackIds, removedIds);
+            }
+            
+            if (!assignSortKeys(entries)) {
+                for (int i = 0; i < entries.size(); i++) {
+                    entries.get(i).sortKey = (i + 1) * PlaylistTrack.POSITION_STEP;
+                }
+            }
+            List<Long> movedIds = new ArrayList<>();
+            List<Integer> movedPositions = new ArrayList<>();
+            List<Long> insertedTrackIds = new ArrayList<>();
+            List<Integer> insertedPositions = new ArrayList<>();
+            long digest = 0L;
+            for (EditEntry entry : entries) {
+                digest += digestOf(entry.sortKey, entry.trackId);
+                if (entry.rowId == null) {
+                    insertedTrackIds.add(entry.trackId);
+                    insertedPositions.add(entry.sortKey);
+                } else if (!entry.sortKey.equals(entry.originalKey)) {
+                    movedIds.add(entry.rowId);
+                    movedPositions.add(entry.sortKey);
                 }
             }
-            if (target == null) {
-                throw new RuntimeException("Трек не найден в плейлисте");
+            
+            if (!removedIds.isEmpty()) {
+                playlistTrackRepository.deleteAllByIdInBatch(removedIds);
             }
-            tracks.remove(target);
-            int boundedPosition = Math.max(0, Math.min(newPosition, tracks.size()));
-            tracks.add(boundedPosition, target);
-            persistPositions(tracks);
+            if (!movedIds.isEmpty()) {
+                playlistTrackRepository.stashPositions(movedIds);
+                playlistTrackRepository.batchUpdatePositions(movedIds, movedPositions);
+            }
+            playlistTrackRepository.batchInsert(playlistId, insertedTrackIds, insertedPositions);
+            playlistRepository.updateContentDigest(playlistId, digest);
+            if (!removedIds.isEmpty() || !insertedTrackIds.isEmpty()) {
+                playlistRepository.recomputeTrackTotals(playlistId);
+            }
+            
+            List<PlaylistChange> changes = new ArrayList<>(operations.size());
+            for (PlaylistEditOperation operation : operations) {
+                Integer position = operation.getPosition();
+                if (operation.getType() != PlaylistEditOperation.Type.REMOVE && position != null && position < 0) {
+                    position = null;
+                }
+                changes.add(new PlaylistChange(PlaylistChange.Type.valueOf(operation.getType().name()),
+                        operation.getTrackId(), position));
+            }
+            recordChanges(playlist, changes);
         } catch (Exception e) {
-            throw new RuntimeException("Ошибка при перемещении трека в плейлисте: " + e.getMessage(), e);
+            throw new RuntimeException("Ошибка при изменении плейлиста: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void shufflePlaylist(Long playlistId) {
+    public void shufflePlaylist(Long playlistId, Long expectedVersion) {
+        claimPlaylistVersion(playlistId, expectedVersion);
         try {
-            Playlist playlist = getPlaylistById(playlistId);
-            List<PlaylistTrack> tracks = new ArrayList<>(playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlist.getId()));
-            if (tracks.isEmpty()) {
+            if (!playlistTrackRepository.existsByPlaylistId(resolveTracksSource(playlistId).getTracksPlaylistId())) {
                 throw new RuntimeException("Плейлист пуст");
             }
-            Collections.shuffle(tracks);
-            persistPositions(tracks);
+            playlistRepository.updateShuffleSeed(playlistId, ThreadLocalRandom.current().nextLong());
+            Playlist playlist = getPlaylistById(playlistId);
+            recordChange(playlist, new PlaylistChange(PlaylistChange.Type.RESYNC, null, null));
         } catch (Exception e) {
             throw new RuntimeException("Ошибка при перемешивании плейлиста: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public Playlist clonePlaylist(Long sourcePlaylistId, Long targetUserId, String name, String description, Boolean makePublic) {
+    public PlaylistCloneResponse clonePlaylist(Long sourcePlaylistId, Long targetUserId, String name, String description,
+                                               Boolean makePublic, Boolean shareTracks) {
         try {
             Playlist source = getPlaylistById(sourcePlaylistId);
             User targetUser = userService.getUserById(targetUserId);
@@ -194,22 +466,28 @@ public Playlist clonePlaylist(Long sourcePlaylistId, Long targetUserId, String n
                     : source.getName() + " (копия)";
             Playlist clone = new Playlist(cloneName, description != null ? description : source.getDescription(),
                     targetUser, Boolean.TRUE.equals(makePublic));
+            Long tracksPlaylistId = source.getTracksSourceId() != null ? source.getTracksSourceId() : source.getId();
+            boolean shared = Boolean.TRUE.equals(shareTracks);
+            if (shared) {
+                clone.setTracksSourceId(tracksPlaylistId);
+            }
+            clone.setShuffleSeed(source.getShuffleSeed());
+            clone.setContentDigest(playlistRepository.findContentDigestById(tracksPlaylistId).orElse(null));
+            clone.setTrackCount(source.getTrackCount());
+            clone.setTotalDurationSeconds(source.getTotalDurationSeconds());
             clone = playlistRepository.save(clone);
-            List<PlaylistTrack> sourceTracks = playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(sourcePlaylistId);
-            int index = 0;
-            for (PlaylistTrack playlistTrack : sourceTracks) {
-                Track track = playlistTrack.getTrack();
-                if (track != null && track.getId() != null) {
-                    Track loadedTrack = trackService.getTrackById(track.getId());
-                    PlaylistTrack newPlaylistTrack = new PlaylistTrack(clone, loadedTrack, index);
-                    playlistTrackRepository.save(newPlaylistTrack);
-                    index++;
-                }
+            int trackCount = shared
+                    ? (int) playlistTrackRepository.countByPlaylistId(tracksPlaylistId)
+                    : playlistTrackRepository.copyTracks(tracksPlaylistId, clone.getId());
+            if (source.getTrackCount() == null || source.getTotalDurationSeconds() == null) {
+                playlistRepository.recomputeTrackTotals(clone.getId());
+            }
+            searchIndex.put(CatalogSearchIndex.Kind.PLAYLISTS, clone.getId(), clone.getName());
+            if (Boolean.TRUE.equals(clone.getIsPublic())) {
+                catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
             }
-            playlistTrackRepository.flush();
-            Long cloneId = clone.getId();
-            entityManager.clear();
-            return getPlaylistByIdWithTracks(cloneId);
+            return new PlaylistCloneResponse(clone.getId(), clone.getName(), clone.getDescription(),
+                    clone.getIsPublic(), clone.getCreatedAt(), source.getId(), trackCount, shared);
         } catch (Exception e) {
             throw new RuntimeException("Ошибка при клонировании плейлиста: " + e.getMessage(), e);
         }
@@ -239,7 +517,9 @@ public Playlist createDailyMix(Long userId, DailyMixRequest request) {
             }
         }
         if (candidateTracks.size() < limit) {
-            List<Track> fallback = genre != null ? trackService.getTracksByGenre(genre) : trackService.getAllTracks();
+            List<Track> fallback = genre != null
+                    ? trackService.getTracksByGenre(genre)
+                    : trackService.getTracksPage(null, Math.min(limit + candidateTracks.size(), PageLimits.MAX_PAGE_SIZE)).getItems();
             for (Track track : fallback) {
                 if (candidateTracks.size() >= limit) {
                     break;
@@ -256,30 +536,160 @@ public Playlist createDailyMix(Long userId, DailyMixRequest request) {
         }
         Collections.shuffle(mixTracks);
         Playlist mix = new Playlist(name, description, user, Boolean.TRUE.equals(request.getMakePublic()));
+        mix.setTrackCount((long) mixTracks.size());
+        mix.setTotalDurationSeconds(mixTracks.stream()
+                .mapToLong(track -> track.getDurationSeconds() != null ? track.getDurationSeconds() : 0L)
+                .sum());
         mix = playlistRepository.save(mix);
+        searchIndex.put(CatalogSearchIndex.Kind.PLAYLISTS, mix.getId(), mix.getName());
+        if (Boolean.TRUE.equals(mix.getIsPublic())) {
+            catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
+        }
         int index = 0;
+        long digest = 0L;
         for (Track track : mixTracks) {
-            playlistTrackRepository.save(new PlaylistTrack(mix, track, index++));
+            int sortKey = ++index * PlaylistTrack.POSITION_STEP;
+            playlistTrackRepository.save(new PlaylistTrack(mix, track, sortKey));
+            digest += digestOf(sortKey, track.getId());
         }
+        mix.setContentDigest(digest);
         playlistTrackRepository.flush();
         Long mixId = mix.getId();
         entityManager.clear();
-        return getPlaylistByIdWithTracks(mixId);
+        return getPlaylistById(mixId);
+    }
+    
+    public List<PlaylistTrackResponse> getPlaylistView(PlaylistTracksSource source) {
+        return getPlaylistView(source, null);
     }
     
-    @Transactional(readOnly = true)
-    public List<PlaylistTrackResponse> getPlaylistView(Long playlistId) {
+    public List<PlaylistTrackResponse> getPlaylistView(PlaylistTracksSource source, Set<TrackField> fields) {
+        String key = source.getTracksPlaylistId() + ":" + source.getShuffleSeed() + ":" + source.getContentDigest() + ":" + fields;
+        return viewFlight.execute(key, () -> fields == null ? loadPlaylistView(source) : loadPlaylistView(source, fields));
+    }
+    
+    private List<PlaylistTrackResponse> loadPlaylistView(PlaylistTracksSource source) {
         try {
-            List<PlaylistTrack> playlistTracks = playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlistId);
-            return playlistTracks.stream()
-                    .map(this::toResponse)
-                    .collect(Collectors.toList());
+            List<PlaylistTrack> playlistTracks = loadOrderedTracks(source);
+            List<PlaylistTrackResponse> view = new ArrayList<>(playlistTracks.size());
+            for (PlaylistTrack playlistTrack : playlistTracks) {
+                view.add(toResponse(playlistTrack, view.size()));
+            }
+            return view;
         } catch (Exception e) {
             throw new RuntimeException("Ошибка при получении треков плейлиста: " + e.getMessage(), e);
         }
     }
     
-    private PlaylistTrackResponse toResponse(PlaylistTrack playlistTrack) {
+    private List<PlaylistTrackResponse> loadPlaylistView(PlaylistTracksSource source, Set<TrackField> fields) {
+        List<PlaylistTrackViewRow> rows = source.getShuffleSeed() == null
+                ? playlistTrackRepository.findViewRows(source.getTracksPlaylistId(), fields)
+                : playlistTrackRepository.findShuffledViewRows(source.getTracksPlaylistId(), source.getShuffleSeed(),
+                        Integer.MIN_VALUE, Integer.MAX_VALUE, fields);
+        List<PlaylistTrackResponse> view = new ArrayList<>(rows.size());
+        for (PlaylistTrackViewRow row : rows) {
+            view.add(toResponse(row, view.size()));
+        }
+        return view;
+    }
+    
+    public String getPlaylistContentDigest(PlaylistTracksSource source) {
+        long digest = source.getContentDigest() != null
+                ? source.getContentDigest()
+                : computeContentDigest(source.getTracksPlaylistId());
+        if (source.getShuffleSeed() != null) {
+            digest = mix64(digest ^ mix64(source.getShuffleSeed()));
+        }
+        return String.format("%016x", digest);
+    }
+    
+    public SseEmitter subscribeToPlaylistEvents(PlaylistAccess access, boolean privileged) {
+        return eventBroadcaster.subscribe(access.getId(), access.getVersion(), privileged);
+    }
+    
+    public PlaylistChangesResponse getPlaylistChanges(PlaylistAccess access, Long since) {
+        Long playlistId = access.getId();
+        Long revision = access.getVersion();
+        if (since == null || since < 0 || since > revision) {
+            return new PlaylistChangesResponse(revision, true, List.of());
+        }
+        if (since.equals(revision)) {
+            return new PlaylistChangesResponse(revision, false, List.of());
+        }
+        if (!playlistChangeRepository.existsByPlaylistIdAndRevision(playlistId, since + 1)) {
+            return new PlaylistChangesResponse(revision, true, List.of());
+        }
+        List<PlaylistChange> changes = playlistChangeRepository
+                .findByPlaylistIdAndRevisionGreaterThanOrderByRevisionAscIdAsc(playlistId, since, Limit.of(MAX_CHANGES + 1))
+                .stream()
+                .filter(change -> change.getRevision() <= revision)
+                .toList();
+        if (changes.size() > MAX_CHANGES || changes.stream().anyMatch(change -> change.getType() == PlaylistChange.Type.RESYNC)) {
+            return new PlaylistChangesResponse(revision, true, List.of());
+        }
+        return new PlaylistChangesResponse(revision, false, changes);
+    }
+    
+    public CursorPageResponse<PlaylistTrackResponse> getPlaylistViewPage(PlaylistTracksSource source, String after, int limit) {
+        PageLimits.check(limit);
+        ViewCursor cursor = ViewCursor.decode(after);
+        List<PlaylistTrack> rows = source.getShuffleSeed() == null
+                ? playlistTrackRepository.findPageByPlaylistIdAfterPosition(
+                        source.getTracksPlaylistId(), cursor.position(), Limit.of(limit + 1))
+                : findShuffledPage(source, cursor.position(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<PlaylistTrack> page = hasMore ? rows.subList(0, limit) : rows;
+        List<PlaylistTrackResponse> items = new ArrayList<>(page.size());
+        for (PlaylistTrack playlistTrack : page) {
+            items.add(toResponse(playlistTrack, cursor.index() + items.size()));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            PlaylistTrack last = page.get(page.size() - 1);
+            nextCursor = new ViewCursor(last.getPosition(), cursor.index() + page.size()).encode();
+        }
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+    
+    public CursorPageResponse<PlaylistTrackResponse> getPlaylistViewPage(PlaylistTracksSource source, String after, int limit,
+                                                                         Set<TrackField> fields) {
+        if (fields == null) {
+            return getPlaylistViewPage(source, after, limit);
+        }
+        PageLimits.check(limit);
+        ViewCursor cursor = ViewCursor.decode(after);
+        List<PlaylistTrackViewRow> rows = source.getShuffleSeed() == null
+                ? playlistTrackRepository.findViewRowsAfterPosition(
+                        source.getTracksPlaylistId(), cursor.position(), limit + 1, fields)
+                : playlistTrackRepository.findShuffledViewRows(source.getTracksPlaylistId(), source.getShuffleSeed(),
+                        cursor.position(), limit + 1, fields);
+        boolean hasMore = rows.size() > limit;
+        List<PlaylistTrackViewRow> page = hasMore ? rows.subList(0, limit) : rows;
+        List<PlaylistTrackResponse> items = new ArrayList<>(page.size());
+        for (PlaylistTrackViewRow row : page) {
+            items.add(toResponse(row, cursor.index() + items.size()));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            PlaylistTrackViewRow last = page.get(page.size() - 1);
+            nextCursor = new ViewCursor(last.position(), cursor.index() + page.size()).encode();
+        }
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+    
+    private PlaylistTrackResponse toResponse(PlaylistTrackViewRow row, int position) {
+        SparseTrackResponse track = row.track();
+        return new PlaylistTrackResponse(
+                track.getId(),
+                track.getTitle(),
+                track.getArtist(),
+                position,
+                track.getAlbum(),
+                track.getDurationSeconds(),
+                track.getGenre());
+    }
+    
+    private PlaylistTrackResponse toResponse(PlaylistTrack playlistTrack, int position) {
         try {
             Track track = playlistTrack.getTrack();
             if (track == null) {
@@ -303,7 +713,7 @@ private PlaylistTrackResponse toResponse(PlaylistTrack playlistTrack) {
                     track.getId(),
                     track.getTitle(),
                     artistName,
-                    playlistTrack.getPosition(),
+                    position,
                     albumTitle,
                     track.getDurationSeconds(),
                     track.getGenre());
@@ -312,51 +722,423 @@ private PlaylistTrackResponse toResponse(PlaylistTrack playlistTrack) {
         }
     }
     
-    private void persistPositions(List<PlaylistTrack> tracks) {
-        if (tracks.isEmpty()) {
-            return;
+    private PlaylistTracksSource resolveTracksSource(Long playlistId) {
+        return playlistRepository.findTracksSourceById(playlistId)
+                .orElseThrow(() -> new RuntimeException("Плейлист с ID " + playlistId + " не найден"));
+    }
+    
+    private List<PlaylistTrack> loadOrderedTracks(PlaylistTracksSource source) {
+        Long tracksPlaylistId = source.getTracksPlaylistId();
+        if (source.getShuffleSeed() == null) {
+            return playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(tracksPlaylistId);
         }
-        try {
-            int offset = 1000000;
-            for (int i = 0; i < tracks.size(); i++) {
-                PlaylistTrack track = tracks.get(i);
-                track.setPosition(offset + i);
-                playlistTrackRepository.save(track);
+        List<Long> ids = playlistTrackRepository.findShuffledIds(tracksPlaylistId, source.getShuffleSeed(),
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return inIdOrder(ids, playlistTrackRepository.findByPlaylistId(tracksPlaylistId));
+    }
+    
+    private List<PlaylistTrack> findShuffledPage(PlaylistTracksSource source, int afterPosition, int count) {
+        List<Long> pageIds = playlistTrackRepository.findShuffledIds(source.getTracksPlaylistId(), source.getShuffleSeed(),
+                afterPosition, count);
+        if (pageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return inIdOrder(pageIds, playlistTrackRepository.findWithTrackByIdIn(pageIds));
+    }
+    
+    private static List<PlaylistTrack> inIdOrder(List<Long> ids, List<PlaylistTrack> playlistTracks) {
+        Map<Long, PlaylistTrack> rowsById = new HashMap<>();
+        for (PlaylistTrack playlistTrack : playlistTracks) {
+            rowsById.put(playlistTrack.getId(), playlistTrack);
+        }
+        List<PlaylistTrack> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PlaylistTrack playlistTrack = rowsById.get(id);
+            if (playlistTrack != null) {
+                ordered.add(playlistTrack);
             }
-            playlistTrackRepository.flush();
-            
-            for (int i = 0; i < tracks.size(); i++) {
-                PlaylistTrack track = tracks.get(i);
-                track.setPosition(i);
-                playlistTrackRepository.save(track);
+        }
+        return ordered;
+    }
+    
+    private void bakeShuffle(Playlist playlist) {
+        Map<Long, PlaylistTrackSlot> slotsById = new HashMap<>();
+        for (PlaylistTrackSlot slot : playlistTrackRepository.findSlotsByPlaylistId(playlist.getId())) {
+            slotsById.put(slot.getId(), slot);
+        }
+        List<Long> ids = playlistTrackRepository.findShuffledIds(playlist.getId(), playlist.getShuffleSeed(),
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+        List<Integer> positions = new ArrayList<>(ids.size());
+        long digest = 0L;
+        for (Long id : ids) {
+            int sortKey = (positions.size() + 1) * PlaylistTrack.POSITION_STEP;
+            positions.add(sortKey);
+            digest += digestOf(sortKey, slotsById.get(id).getTrackId());
+        }
+        if (!ids.isEmpty()) {
+            playlistTrackRepository.stashPositions(ids);
+            playlistTrackRepository.batchUpdatePositions(ids, positions);
+        }
+        playlistRepository.updateShuffleSeed(playlist.getId(), null);
+        playlistRepository.updateContentDigest(playlist.getId(), digest);
+        playlist.setShuffleSeed(null);
+        playlist.setContentDigest(digest);
+    }
+    
+    private void adjustContentDigest(Long playlistId, long delta) {
+        Long digest = playlistRepository.findContentDigestById(playlistId).orElse(null);
+        if (digest != null) {
+            playlistRepository.updateContentDigest(playlistId, digest + delta);
+        }
+    }
+    
+    private void adjustTrackTotals(Long playlistId, long trackDelta, long durationDelta) {
+        if (playlistRepository.adjustTrackTotals(playlistId, trackDelta, durationDelta) == 0) {
+            playlistRepository.recomputeTrackTotals(playlistId);
+        }
+    }
+    
+    private void recomputeContentDigest(Long playlistId) {
+        playlistRepository.updateContentDigest(playlistId, computeContentDigest(playlistId));
+    }
+    
+    private long computeContentDigest(Long tracksPlaylistId) {
+        long digest = 0L;
+        for (PlaylistTrackSlot slot : playlistTrackRepository.findSlotsByPlaylistId(tracksPlaylistId)) {
+            digest += digestOf(slot.getPosition(), slot.getTrackId());
+        }
+        return digest;
+    }
+    
+    private static long digestOf(int sortKey, long trackId) {
+        return mix64(((long) sortKey << 32) ^ trackId);
+    }
+    
+    private static long mix64(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+    
+    private void claimPlaylistVersion(Long playlistId, Long expectedVersion) {
+        int updated = expectedVersion == null
+                ? playlistRepository.incrementVersion(playlistId)
+                : playlistRepository.incrementVersionIfMatches(playlistId, expectedVersion);
+        if (updated == 0) {
+            if (!playlistRepository.existsById(playlistId)) {
+                throw new RuntimeException("Плейлист с ID " + playlistId + " не найден");
             }
-            playlistTrackRepository.flush();
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при сохранении позиций: " + e.getMessage(), e);
+            throw new PreconditionFailedException("Плейлист был изменён другим запросом, обновите данные и повторите попытку");
+        }
+        if (playlistRepository.findIsPublicById(playlistId).orElse(false)) {
+            catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
+        }
+    }
+    
+    private Playlist getPlaylistForTrackWrite(Long playlistId, Long expectedVersion) {
+        claimPlaylistVersion(playlistId, expectedVersion);
+        Playlist playlist = getPlaylistById(playlistId);
+        if (playlist.getTracksSourceId() != null) {
+            playlistTrackRepository.copyTracks(playlist.getTracksSourceId(), playlist.getId());
+            playlistRepository.detachTracksSource(playlist.getId());
+        } else {
+            handOverSharedCopies(playlist.getId(), false);
+        }
+        if (playlist.getShuffleSeed() != null) {
+            bakeShuffle(playlist);
+        } else if (playlist.getContentDigest() == null) {
+            long digest = computeContentDigest(playlist.getId());
+            playlistRepository.updateContentDigest(playlist.getId(), digest);
+            playlist.setContentDigest(digest);
+        }
+        return playlist;
+    }
+    
+    private void recordChange(Playlist playlist, PlaylistChange change) {
+        recordChanges(playlist, List.of(change));
+    }
+    
+    private void recordChanges(Playlist playlist, List<PlaylistChange> changes) {
+        for (PlaylistChange change : changes) {
+            change.setPlaylistId(playlist.getId());
+            change.setRevision(playlist.getVersion());
         }
+        playlistChangeRepository.batchInsert(changes);
+        eventPublisher.publishEvent(new PlaylistChangedEvent(playlist.getId(), playlist.getVersion(), changes, false));
     }
     
-    private void normalizePositions(Long playlistId) {
-        List<PlaylistTrack> ordered = playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlistId);
-        if (ordered.isEmpty()) {
+    private void handOverSharedCopies(Long playlistId, boolean sourceDeleted) {
+        Long heirId = playlistRepository.findFirstSharedCopyId(playlistId);
+        if (heirId == null) {
             return;
         }
-        try {
-            int offset = 1000000;
-            for (int i = 0; i < ordered.size(); i++) {
-                PlaylistTrack track = ordered.get(i);
-                track.setPosition(offset + i);
-                playlistTrackRepository.save(track);
-            }
-            playlistTrackRepository.flush();
-            for (int i = 0; i < ordered.size(); i++) {
-                PlaylistTrack track = ordered.get(i);
-                track.setPosition(i);
-                playlistTrackRepository.save(track);
-            }
-            playlistTrackRepository.flush();
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при нормализации позиций: " + e.getMessage(), e);
+        if (sourceDeleted) {
+            playlistTrackRepository.moveTracks(playlistId, heirId);
+        } else {
+            playlistTrackRepository.copyTracks(playlistId, heirId);
+        }
+        playlistRepository.detachTracksSource(heirId);
+        playlistRepository.repointSharedCopies(playlistId, heirId);
+    }
+    
+    private int appendBase(Long playlistId, int count) {
+        Integer maxPosition = playlistTrackRepository.findMaxPositionByPlaylistId(playlistId);
+        if (maxPosition == null) {
+            return 0;
+        }
+        if ((long) maxPosition + (long) count * PlaylistTrack.POSITION_STEP > Integer.MAX_VALUE) {
+            rebalancePositions(playlistId);
+            maxPosition = playlistTrackRepository.findMaxPositionByPlaylistId(playlistId);
+        }
+        if ((long) maxPosition + (long) count * PlaylistTrack.POSITION_STEP > Integer.MAX_VALUE) {
+            throw new RuntimeException("Превышен максимальный размер плейлиста");
+        }
+        return maxPosition;
+    }
+    
+    private Integer allocatePosition(Long playlistId, Long excludedId, int index) {
+        Integer sortKey = findNeighbours(playlistId, excludedId, index).keyBetween();
+        if (sortKey == null) {
+            rebalancePositions(playlistId);
+            sortKey = findNeighbours(playlistId, excludedId, index).keyBetween();
+        }
+        if (sortKey == null) {
+            throw new RuntimeException("Не удалось выделить позицию в плейлисте");
+        }
+        return sortKey;
+    }
+    
+    private Neighbours findNeighbours(Long playlistId, Long excludedId, int index) {
+        Integer previous = null;
+        Integer next;
+        if (index == 0) {
+            List<Integer> window = playlistTrackRepository.findPositionWindow(playlistId, excludedId, 0, 1);
+            next = window.isEmpty() ? null : window.get(0);
+        } else {
+            List<Integer> window = playlistTrackRepository.findPositionWindow(playlistId, excludedId, index - 1, 2);
+            if (window.isEmpty()) {
+                previous = playlistTrackRepository.findMaxPositionByPlaylistId(playlistId);
+                next = null;
+            } else {
+                previous = window.get(0);
+                next = window.size() > 1 ? window.get(1) : null;
+            }
+        }
+        return new Neighbours(previous, next);
+    }
+    
+    private Long shiftRangeAndMove(Long playlistId, PlaylistTrackSlot target, Neighbours neighbours) {
+        int current = target.getPosition();
+        int destination;
+        int fromPosition;
+        int toPosition;
+        int shift;
+        if (neighbours.next() != null && current > neighbours.next()) {
+            destination = neighbours.next();
+            fromPosition = destination;
+            toPosition = current - 1;
+            shift = 1;
+        } else if (neighbours.previous() != null && current < neighbours.previous()) {
+            destination = neighbours.previous();
+            fromPosition = current + 1;
+            toPosition = destination;
+            shift = -1;
+        } else {
+            return null;
+        }
+        long digestDelta = digestOf(destination, target.getTrackId()) - digestOf(current, target.getTrackId());
+        for (PlaylistTrackSlot slot : playlistTrackRepository.findSlotsInPositionRange(playlistId, fromPosition, toPosition)) {
+            digestDelta += digestOf(slot.getPosition() + shift, slot.getTrackId()) - digestOf(slot.getPosition(), slot.getTrackId());
+        }
+        playlistTrackRepository.stashShiftedRange(playlistId, fromPosition, toPosition, shift);
+        playlistTrackRepository.updatePosition(target.getId(), destination);
+        playlistTrackRepository.restoreShiftedRange(playlistId);
+        return digestDelta;
+    }
+    
+    private void rebalancePositions(Long playlistId) {
+        playlistTrackRepository.stashPositionsInOrder(playlistId);
+        playlistTrackRepository.spreadStashedPositions(playlistId, PlaylistTrack.POSITION_STEP);
+        recomputeContentDigest(playlistId);
+    }
+    
+    private record ViewCursor(int position, int index) {
+        
+        private static final ViewCursor START = new ViewCursor(Integer.MIN_VALUE, 0);
+        
+        static ViewCursor decode(String value) {
+            if (value == null || value.isBlank()) {
+                return START;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException();
+                }
+                int index = Integer.parseInt(parts[1]);
+                if (index < 0) {
+                    throw new IllegalArgumentException();
+                }
+                return new ViewCursor(Integer.parseInt(parts[0]), index);
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Некорректный курсор страницы: " + value);
+            }
+        }
+        
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((position + ":" + index).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    private record Neighbours(Integer previous, Integer next) {
+        
+        Integer keyBetween() {
+            if (next == null) {
+                long candidate = previous == null ? PlaylistTrack.POSITION_STEP : (long) previous + PlaylistTrack.POSITION_STEP;
+                return candidate <= Integer.MAX_VALUE ? (int) candidate : null;
+            }
+            long lower = previous == null ? -1L : previous;
+            if (next - lower < 2) {
+                return null;
+            }
+            return (int) (lower + (next - lower) / 2);
+        }
+    }
+    
+    private void applyEdit(List<EditEntry> entries, PlaylistEditOperation operation, int number,
+                           Set<Long> knownTrackIds, List<Long> removedIds) {
+        Long trackId = operation.getTrackId();
+        Integer position = operation.getPosition();
+        switch (operation.getType()) {
+            case ADD -> {
+                if (trackId == null) {
+                    throw new RuntimeException("Операция " + number + ": укажите трек");
+                }
+                if (!knownTrackIds.contains(trackId)) {
+                    throw new RuntimeException("Операция " + number + ": трек с ID " + trackId + " не найден");
+                }
+                if (indexOfTrack(entries, trackId) >= 0) {
+                    throw new RuntimeException("Операция " + number + ": трек уже существует в плейлисте");
+                }
+                int index = (position == null || position < 0) ? entries.size() : Math.min(position, entries.size());
+                entries.add(index, new EditEntry(null, trackId, null));
+            }
+            case REMOVE -> {
+                int index;
+                if (trackId != null) {
+                    index = indexOfTrack(entries, trackId);
+                } else {
+                    index = (position != null && position >= 0 && position < entries.size()) ? position : -1;
+                }
+                if (index < 0) {
+                    throw new RuntimeException("Операция " + number + ": трек для удаления не найден");
+                }
+                EditEntry removed = entries.remove(index);
+                if (removed.rowId != null) {
+                    removedIds.add(removed.rowId);
+                }
+            }
+            case MOVE -> {
+                if (trackId == null || position == null || position < 0) {
+                    throw new RuntimeException("Операция " + number + ": укажите трек и неотрицательную позицию");
+                }
+                int index = indexOfTrack(entries, trackId);
+                if (index < 0) {
+                    throw new RuntimeException("Операция " + number + ": трек не найден в плейлисте");
+                }
+                EditEntry moved = entries.remove(index);
+                entries.add(Math.min(position, entries.size()), moved);
+            }
+        }
+    }
+    
+    private static int indexOfTrack(List<EditEntry> entries, Long trackId) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).trackId.equals(trackId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static boolean assignSortKeys(List<EditEntry> entries) {
+        boolean[] kept = longestIncreasingKeys(entries);
+        long lower = -1L;
+        int segmentStart = 0;
+        for (int i = 0; i <= entries.size(); i++) {
+            if (i < entries.size() && !kept[i]) {
+                continue;
+            }
+            Integer upper = i < entries.size() ? entries.get(i).originalKey : null;
+            int count = i - segmentStart;
+            if (upper == null) {
+                long base = Math.max(lower, 0L);
+                if (base + (long) count * PlaylistTrack.POSITION_STEP > Integer.MAX_VALUE) {
+                    return false;
+                }
+                for (int j = 0; j < count; j++) {
+                    entries.get(segmentStart + j).sortKey = (int) (base + (long) (j + 1) * PlaylistTrack.POSITION_STEP);
+                }
+            } else {
+                if (upper - lower - 1 < count) {
+                    return false;
+                }
+                for (int j = 0; j < count; j++) {
+                    entries.get(segmentStart + j).sortKey = (int) (lower + (upper - lower) * (j + 1) / (count + 1));
+                }
+                entries.get(i).sortKey = upper;
+                lower = upper;
+            }
+            segmentStart = i + 1;
+        }
+        return true;
+    }
+    
+    private static boolean[] longestIncreasingKeys(List<EditEntry> entries) {
+        int size = entries.size();
+        int[] tails = new int[size];
+        int[] previous = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            Integer key = entries.get(i).originalKey;
+            if (key == null) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries.get(tails[middle]).originalKey < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] kept = new boolean[size];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            kept[i] = true;
+        }
+        return kept;
+    }
+    
+    private static final class EditEntry {
+        
+        private final Long rowId;
+        private final Long trackId;
+        private final Integer originalKey;
+        private Integer sortKey;
+        
+        private EditEntry(Long rowId, Long trackId, Integer originalKey) {
+            this.rowId = rowId;
+            this.trackId = trackId;
+            this.originalKey = originalKey;
         }
     }
 }
@@ -0,0 +1,49 @@
+package ru.music.streaming.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.music.streaming.model.CatalogVersion;
+import ru.music.streaming.repository.PlaylistRepository;
+
+import java.util.List;
+
+@Component
+public class PlaylistTotalsRepairJob {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final PlaylistRepository playlistRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersionService catalogVersionService;
+    
+    @Autowired
+    public PlaylistTotalsRepairJob(PlaylistRepository playlistRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   CatalogVersionService catalogVersionService) {
+        this.playlistRepository = playlistRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogVersionService = catalogVersionService;
+    }
+    
+    @Scheduled(fixedDelayString = "${playlist.totals.repair-interval-ms:86400000}")
+    public void repair() {
+        Long afterId = 0L;
+        while (afterId != null) {
+            Long from = afterId;
+            afterId = transactionTemplate.execute(status -> repairBatch(from));
+        }
+    }
+    
+    private Long repairBatch(Long afterId) {
+        List<Long> ids = playlistRepository.lockIdsAfter(afterId, BATCH_SIZE);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        if (playlistRepository.repairTrackTotals(ids) > 0) {
+            catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
+        }
+        return ids.get(ids.size() - 1);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.music.streaming.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class SerializedResponseCache {
+    
+    public static final String PUBLIC_PLAYLISTS_KEY = "playlists:public";
+    
+    private final ObjectMapper objectMapper;
+    private final Map<String, SerializedBody> entries;
+    
+    @Autowired
+    public SerializedResponseCache(ObjectMapper objectMapper,
+                                   @Value("${playlist.response-cache.max-entries:1000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SerializedBody> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+    
+    public static String playlistKey(Long playlistId) {
+        return "playlist:" + playlistId;
+    }
+    
+    public SerializedBody get(String key, String tag, Supplier<?> loader) {
+        SerializedBody cached = entries.get(key);
+        if (cached != null && cached.getTag().equals(tag)) {
+            return cached;
+        }
+        SerializedBody body = serialize(tag, loader.get());
+        entries.put(key, body);
+        return body;
+    }
+    
+    public void evictPlaylist(Long playlistId) {
+        entries.remove(playlistKey(playlistId));
+        entries.remove(PUBLIC_PLAYLISTS_KEY);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPlaylistChanged(PlaylistChangedEvent event) {
+        evictPlaylist(event.getPlaylistId());
+    }
+    
+    private SerializedBody serialize(String tag, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new SerializedBody(tag, json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Ошибка сериализации ответа: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка сжатия ответа: " + e.getMessage(), e);
+        }
+    }
+    
+    public static class SerializedBody {
+        
+        private final String tag;
+        private final byte[] json;
+        private final byte[] gzip;
+        
+        SerializedBody(String tag, byte[] json, byte[] gzip) {
+            this.tag = tag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+        
+        public String getTag() {
+            return tag;
+        }
+        
+        public byte[] getJson() {
+            return json;
+        }
+        
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.music.streaming.service;
+
+import org.springframework.stereotype.Component;
+import ru.music.streaming.dto.SingleFlightStatsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SingleFlightRegistry {
+    
+    private final Map<String, SingleFlight<?, ?>> flights = new ConcurrentHashMap<>();
+    
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> get(String name) {
+        return (SingleFlight<K, V>) flights.computeIfAbsent(name, SingleFlight::new);
+    }
+    
+    public List<SingleFlightStatsResponse> getStats() {
+        List<SingleFlightStatsResponse> stats = new ArrayList<>(flights.size());
+        for (SingleFlight<?, ?> flight : flights.values()) {
+            stats.add(new SingleFlightStatsResponse(
+                    flight.getName(),
+                    flight.getLoads(),
+                    flight.getCoalesced(),
+                    flight.getBypassed(),
+                    flight.getInFlight()));
+        }
+        stats.sort((left, right) -> left.getName().compareTo(right.getName()));
+        return stats;
+    }
+}
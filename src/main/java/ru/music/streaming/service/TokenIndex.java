@@ -0,0 +1,103 @@
+package ru.music.streaming.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TokenIndex {
+    
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void put(long id, String text) {
+        String[] tokens = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (tokens.length > 0) {
+                documents.put(id, tokens);
+                for (String token : tokens) {
+                    postings.computeIfAbsent(token, key -> new PostingList()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long[] search(String query) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String term : terms) {
+                long[] matches = prefixMatches(term);
+                result = result == null ? matches : PostingList.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+    
+    private void removeDocument(long id) {
+        String[] tokens = documents.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            PostingList list = postings.get(token);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(token);
+            }
+        }
+    }
+    
+    private long[] prefixMatches(String prefix) {
+        return PostingList.union(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+    }
+}
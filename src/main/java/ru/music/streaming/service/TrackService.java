@@ -1,31 +1,57 @@
 package ru.music.streaming.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.dto.CursorPageResponse;
+import ru.music.streaming.dto.SparseTrackResponse;
+import ru.music.streaming.dto.TrackBatchResponse;
+import ru.music.streaming.dto.TrackField;
 import ru.music.streaming.model.Album;
 import ru.music.streaming.model.Artist;
+import ru.music.streaming.model.CatalogVersion;
 import ru.music.streaming.model.Track;
+import ru.music.streaming.repository.PlaylistRepository;
 import ru.music.streaming.repository.TrackRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TrackService {
     
     private final TrackRepository trackRepository;
+    private final PlaylistRepository playlistRepository;
     private final ArtistService artistService;
     private final AlbumService albumService;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogSearchIndex searchIndex;
     
     @Autowired
-    public TrackService(TrackRepository trackRepository, ArtistService artistService, AlbumService albumService) {
+    public TrackService(TrackRepository trackRepository,
+                        PlaylistRepository playlistRepository,
+                        ArtistService artistService,
+                        AlbumService albumService,
+                        CatalogVersionService catalogVersionService,
+                        CatalogSearchIndex searchIndex) {
         this.trackRepository = trackRepository;
+        this.playlistRepository = playlistRepository;
         this.artistService = artistService;
         this.albumService = albumService;
+        this.catalogVersionService = catalogVersionService;
+        this.searchIndex = searchIndex;
     }
     
     @Transactional
     public Track createTrack(Track track, Long artistId, Long albumId) {
+        catalogVersionService.bump(CatalogVersion.Kind.TRACKS);
         Artist artist = artistService.getArtistById(artistId);
         track.setArtist(artist);
         
@@ -33,22 +59,56 @@ public Track createTrack(Track track, Long artistId, Long albumId) {
             Album album = albumService.getAlbumById(albumId);
             track.setAlbum(album);
         }
+        artistService.touchDiscography(discographyArtistIds(track));
         
-        return trackRepository.save(track);
+        Track saved = trackRepository.save(track);
+        searchIndex.put(CatalogSearchIndex.Kind.TRACKS, saved.getId(), saved.getTitle());
+        return saved;
     }
     
     public List<Track> getAllTracks() {
         return trackRepository.findAll();
     }
     
+    public CursorPageResponse<Track> getTracksPage(Long after, int limit) {
+        PageLimits.check(limit);
+        List<Track> rows = trackRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, Track::getId);
+    }
+    
     public Track getTrackById(Long id) {
         return trackRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Трек с ID " + id + " не найден"));
     }
     
+    public TrackBatchResponse getTracksByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, SparseTrackResponse> found = new HashMap<>();
+        for (SparseTrackResponse track : trackRepository.findResponsesByIdIn(requested)) {
+            found.put(track.getId(), track);
+        }
+        List<SparseTrackResponse> tracks = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            SparseTrackResponse track = found.get(id);
+            if (track != null) {
+                tracks.add(track);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new TrackBatchResponse(tracks, missingIds);
+    }
+    
     @Transactional
     public Track updateTrack(Long id, Track trackDetails, Long artistId, Long albumId) {
+        catalogVersionService.bump(CatalogVersion.Kind.TRACKS);
         Track track = getTrackById(id);
+        Set<Long> artistIds = discographyArtistIds(track);
+        long durationDelta = durationOf(trackDetails.getDurationSeconds()) - durationOf(track.getDurationSeconds());
+        if (durationDelta != 0) {
+            playlistRepository.adjustDurationForTrack(id, durationDelta);
+        }
         
         track.setTitle(trackDetails.getTitle());
         track.setDurationSeconds(trackDetails.getDurationSeconds());
@@ -64,14 +124,34 @@ public Track updateTrack(Long id, Track trackDetails, Long artistId, Long albumI
             Album album = albumService.getAlbumById(albumId);
             track.setAlbum(album);
         }
+        artistIds.addAll(discographyArtistIds(track));
+        artistService.touchDiscography(artistIds);
+        searchIndex.put(CatalogSearchIndex.Kind.TRACKS, id, track.getTitle());
         
         return trackRepository.save(track);
     }
     
     @Transactional
     public void deleteTrack(Long id) {
+        catalogVersionService.bump(CatalogVersion.Kind.TRACKS);
         Track track = getTrackById(id);
+        artistService.touchDiscography(discographyArtistIds(track));
         trackRepository.delete(track);
+        searchIndex.remove(CatalogSearchIndex.Kind.TRACKS, List.of(id));
+    }
+    
+    public long getTotalDuration(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0L;
+        }
+        return trackRepository.sumDurationByIdIn(ids);
+    }
+    
+    public Set<Long> findExistingTrackIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(trackRepository.findExistingIds(ids));
     }
     
     public List<Track> getTracksByArtist(Long artistId) {
@@ -82,11 +162,46 @@ public List<Track> getTracksByAlbum(Long albumId) {
         return trackRepository.findByAlbumId(albumId);
     }
     
+    public List<SparseTrackResponse> getTracksByArtist(Long artistId, Set<TrackField> fields) {
+        return trackRepository.findSparseByArtistId(artistId, fields);
+    }
+    
+    public List<SparseTrackResponse> getTracksByAlbum(Long albumId, Set<TrackField> fields) {
+        return trackRepository.findSparseByAlbumId(albumId, fields);
+    }
+    
     public List<Track> searchTracksByTitle(String title) {
-        return trackRepository.findByTitleContainingIgnoreCase(title);
+        long[] ids = searchIndex.search(CatalogSearchIndex.Kind.TRACKS, title);
+        if (ids == null || ids.length == 0) {
+            return trackRepository.findByTitleContainingIgnoreCase(title);
+        }
+        return CatalogSearchIndex.fetch(ids, trackRepository::findAllById, Track::getId);
+    }
+    
+    public List<Track> fuzzySearchTracksByTitle(String title) {
+        long[] ids = searchIndex.searchFuzzy(CatalogSearchIndex.Kind.TRACKS, title);
+        if (ids == null) {
+            return searchTracksByTitle(title);
+        }
+        return CatalogSearchIndex.fetch(ids, trackRepository::findAllById, Track::getId);
     }
     
     public List<Track> getTracksByGenre(String genre) {
         return trackRepository.findByGenre(genre);
     }
+    
+    private static Set<Long> discographyArtistIds(Track track) {
+        Set<Long> artistIds = new HashSet<>();
+        if (track.getArtist() != null) {
+            artistIds.add(track.getArtist().getId());
+        }
+        if (track.getAlbum() != null && track.getAlbum().getArtist() != null) {
+            artistIds.add(track.getAlbum().getArtist().getId());
+        }
+        return artistIds;
+    }
+    
+    private static long durationOf(Integer durationSeconds) {
+        return durationSeconds != null ? durationSeconds : 0L;
+    }
 }
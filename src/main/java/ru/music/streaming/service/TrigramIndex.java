@@ -0,0 +1,128 @@
+package ru.music.streaming.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TrigramIndex {
+    
+    private static final PostingList NO_POSTINGS = new PostingList();
+    
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, long[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void put(long id, String text) {
+        long[] trigrams = trigrams(text);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (trigrams.length > 0) {
+                documents.put(id, trigrams);
+                for (long trigram : trigrams) {
+                    postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public long[] search(String query, double threshold, int limit) {
+        long[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0) {
+            return null;
+        }
+        int required = Math.max(1, (int) Math.ceil(threshold * queryTrigrams.length));
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(queryTrigrams.length);
+            for (long trigram : queryTrigrams) {
+                lists.add(postings.getOrDefault(trigram, NO_POSTINGS));
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            for (long id : PostingList.union(lists.subList(0, queryTrigrams.length - required + 1))) {
+                long[] documentTrigrams = documents.get(id);
+                int common = countCommon(queryTrigrams, documentTrigrams);
+                double similarity = (double) common / (queryTrigrams.length + documentTrigrams.length - common);
+                if (similarity >= threshold) {
+                    matches.add(new Match(id, similarity));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id));
+        long[] result = new long[Math.min(limit, matches.size())];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = matches.get(i).id();
+        }
+        return result;
+    }
+    
+    static long[] trigrams(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        List<Long> trigrams = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+        return trigrams.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+    
+    private void removeDocument(long id) {
+        long[] trigrams = documents.remove(id);
+        if (trigrams == null) {
+            return;
+        }
+        for (long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+    
+    private static int countCommon(long[] left, long[] right) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+    
+    private record Match(long id, double similarity) {
+    }
+}
@@ -1,29 +1,28 @@
 package ru.music.streaming.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.music.streaming.dto.CursorPageResponse;
 import ru.music.streaming.dto.CreateUserRequest;
 import ru.music.streaming.dto.RegistrationRequest;
 import ru.music.streaming.dto.UserLibrarySummaryResponse;
 import ru.music.streaming.dto.UserSessionResponse;
-import ru.music.streaming.model.Artist;
-import ru.music.streaming.model.Playlist;
-import ru.music.streaming.model.PlaylistTrack;
+import ru.music.streaming.model.CatalogVersion;
 import ru.music.streaming.model.Role;
-import ru.music.streaming.model.Track;
 import ru.music.streaming.model.User;
 import ru.music.streaming.model.UserSession;
+import ru.music.streaming.repository.LibraryTrackCounts;
+import ru.music.streaming.repository.PlaylistChangeRepository;
 import ru.music.streaming.repository.PlaylistRepository;
+import ru.music.streaming.repository.PlaylistTotals;
 import ru.music.streaming.repository.PlaylistTrackRepository;
 import ru.music.streaming.repository.UserRepository;
 import ru.music.streaming.repository.UserSessionRepository;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
 
 @Service
 public class UserService {
@@ -31,20 +30,29 @@ public class UserService {
     private final UserRepository userRepository;
     private final PlaylistRepository playlistRepository;
     private final PlaylistTrackRepository playlistTrackRepository;
+    private final PlaylistChangeRepository playlistChangeRepository;
     private final UserSessionRepository sessionRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CatalogSearchIndex searchIndex;
+    private final CatalogVersionService catalogVersionService;
     
     @Autowired
     public UserService(UserRepository userRepository,
                        PlaylistRepository playlistRepository,
                        PlaylistTrackRepository playlistTrackRepository,
+                       PlaylistChangeRepository playlistChangeRepository,
                        UserSessionRepository sessionRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       CatalogSearchIndex searchIndex,
+                       CatalogVersionService catalogVersionService) {
         this.userRepository = userRepository;
         this.playlistRepository = playlistRepository;
         this.playlistTrackRepository = playlistTrackRepository;
+        this.playlistChangeRepository = playlistChangeRepository;
         this.sessionRepository = sessionRepository;
         this.passwordEncoder = passwordEncoder;
+        this.searchIndex = searchIndex;
+        this.catalogVersionService = catalogVersionService;
     }
     
     @Transactional
@@ -95,6 +103,12 @@ public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
+    public CursorPageResponse<User> getUsersPage(Long after, int limit) {
+        PageLimits.check(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit + 1));
+        return CursorPageResponse.fromRows(rows, limit, User::getId);
+    }
+    
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Пользователь с ID " + id + " не найден"));
@@ -118,8 +132,19 @@ public User updateUser(Long id, User userDetails) {
     
     @Transactional
     public void deleteUser(Long id) {
-        User user = getUserById(id);
-        userRepository.delete(user);
+        getUserById(id);
+        if (playlistRepository.existsByUserIdAndIsPublicTrue(id)) {
+            catalogVersionService.bump(CatalogVersion.Kind.PUBLIC_PLAYLISTS);
+        }
+        for (Long sourceId : playlistRepository.findSharedSourceIdsOfUser(id)) {
+            Long heirId = playlistRepository.findFirstSharedCopyIdOutsideUser(sourceId, id);
+            playlistTrackRepository.moveTracks(sourceId, heirId);
+            playlistRepository.detachTracksSource(heirId);
+            playlistRepository.repointSharedCopies(sourceId, heirId);
+        }
+        playlistChangeRepository.deleteByUserId(id);
+        searchIndex.remove(CatalogSearchIndex.Kind.PLAYLISTS, playlistRepository.findIdsByUserId(id));
+        userRepository.deleteById(id);
     }
     
     public User getUserByEmail(String email) {
@@ -130,31 +155,15 @@ public User getUserByEmail(String email) {
     @Transactional(readOnly = true)
     public UserLibrarySummaryResponse getUserLibrarySummary(Long userId) {
         User user = getUserById(userId);
-        List<Playlist> playlists = playlistRepository.findByUserId(userId);
-        List<PlaylistTrack> playlistTracks = playlistTrackRepository.findByUserId(userId);
-        int totalTracks = playlistTracks.size();
-        Set<Long> uniqueTrackIds = new HashSet<>();
-        Set<Long> uniqueArtistIds = new HashSet<>();
-        int totalDuration = 0;
-        for (PlaylistTrack playlistTrack : playlistTracks) {
-            Track track = playlistTrack.getTrack();
-            if (track == null) {
-                continue;
-            }
-            uniqueTrackIds.add(track.getId());
-            Artist artist = track.getArtist();
-            if (artist != null) {
-                uniqueArtistIds.add(artist.getId());
-            }
-            totalDuration += Objects.requireNonNullElse(track.getDurationSeconds(), 0);
-        }
+        PlaylistTotals totals = playlistRepository.findTotalsByUserId(userId);
+        LibraryTrackCounts counts = playlistTrackRepository.findLibraryCountsByUserId(userId);
         return new UserLibrarySummaryResponse(
                 user.getId(),
-                playlists.size(),
-                totalTracks,
-                uniqueTrackIds.size(),
-                uniqueArtistIds.size(),
-                totalDuration
+                totals.getPlaylistCount().intValue(),
+                totals.getTrackCount().intValue(),
+                counts.getUniqueTracks().intValue(),
+                counts.getUniqueArtists().intValue(),
+                totals.getTotalDurationSeconds().intValue()
         );
     }
     